@@ -1,6 +1,8 @@
 package com.moss.javatest.book.domain.model;
 
 import com.moss.javatest.book.domain.code.BookType;
+import com.moss.javatest.shared.domain.ValueObjectIdEntity;
+import com.moss.javatest.shared.infrastructure.jpa.converter.EpochMilliOffsetDateTimeConverter;
 import com.querydsl.core.annotations.QueryEmbedded;
 import lombok.*;
 import org.springframework.util.Assert;
@@ -11,6 +13,7 @@ import java.time.OffsetDateTime;
 /**
  * 책
  * Id를 직접 생성하는 경우
+ * ValueObjectIdEntity로 save시 존재여부 조회(merge) 없이 바로 INSERT
  */
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
@@ -18,8 +21,11 @@ import java.time.OffsetDateTime;
 @ToString
 //----
 @Entity
-@Table(name = "Books")
-public class Book {
+@Table(name = "Books", indexes = {
+        // Keyset Pagination (title, id)
+        @Index(name = "ix_books_title_id", columnList = "title, id")
+})
+public class Book extends ValueObjectIdEntity<BookId> {
     // Id
     @EmbeddedId
     @EqualsAndHashCode.Include
@@ -46,8 +52,10 @@ public class Book {
     @Setter
     private String author;
 
-    // 출간일
+    // 출간일 (epochMilli BIGINT, 기존 DATETIME 컬럼은 documents/DateTime.md의 Migration 후 배포)
     @Setter
+    //----
+    @Convert(converter = EpochMilliOffsetDateTimeConverter.class)
     private OffsetDateTime published;
 
     // ISBN13
@@ -1,24 +1,64 @@
 package com.moss.javatest.book.domain.model;
 
+import com.moss.javatest.shared.infrastructure.jpa.type.UuidStringBinaryType;
+import com.moss.javatest.shared.domain.SingleValueObject;
 import lombok.AllArgsConstructor;
 import lombok.Value;
+import org.hibernate.annotations.Type;
 
+import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import java.io.Serializable;
+import java.util.UUID;
 
 /**
  * BookId
+ * Java, JSON, URL에서는 UUID 문자열, DB에는 BINARY(16)로 저장
  */
 @Value
 @AllArgsConstructor(staticName = "of")
 //----
 @Embeddable
-public class BookId implements Serializable {
+public class BookId implements Serializable, SingleValueObject<String> {
     // Id
+    @Type(type = UuidStringBinaryType.Name)
+    @Column(columnDefinition = "BINARY(16)")
     private String id;
 
     // For JPA
     protected BookId() {
         this.id = null;
     }
+
+    @Override
+    public String value() {
+        return id;
+    }
+
+    /**
+     * Id 형식(UUID 문자열) 확인
+     * @param id Id
+     * @return 형식이 맞으면 true
+     */
+    public static boolean isValid(String id) {
+        return null != canonicalize(id);
+    }
+
+    /**
+     * Id를 표준 형식(소문자 36자 UUID 문자열, DB에서 읽은 Id와 같은 형식)으로 변환
+     * UUID.fromString은 "1-1-1-1-1" 같은 표준이 아닌 형식도 받으므로 36자 표준 형식만 허용 (대소문자는 무시)
+     * @param id Id
+     * @return 표준 형식 Id, 형식이 맞지 않으면 null
+     */
+    public static String canonicalize(String id) {
+        if (null == id || 36 != id.length()) {
+            return null;
+        }
+        try {
+            var canonical = UUID.fromString(id).toString();
+            return canonical.equalsIgnoreCase(id) ? canonical : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package com.moss.javatest.book.domain.model;
+
+import com.moss.javatest.shared.domain.ValueObjectIdEntity;
+import lombok.*;
+
+import javax.persistence.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 분류별 책 수
+ * 분류마다 Stripes개의 행으로 나누어 저장하고 증감은 임의의 행 하나에 함 (같은 분류의 동시 증감이 한 행의 잠금을 기다리지 않도록)
+ * 분류의 책 수는 분류의 모든 행의 합
+ */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@EqualsAndHashCode(callSuper = false)
+@ToString
+//----
+@Entity
+@Table(name = "CategoryBookCounts")
+public class CategoryBookCount extends ValueObjectIdEntity<CategoryBookCountId> {
+    // 분류별 행 수
+    public static final int Stripes = 8;
+
+    // Id
+    @EmbeddedId
+    @EqualsAndHashCode.Include
+    private CategoryBookCountId id;
+
+    // 책 수 (행 하나의 값은 음수일 수 있음)
+    private long bookCount;
+
+    private CategoryBookCount(CategoryBookCountId id, long bookCount) {
+        this.id = id;
+        this.bookCount = bookCount;
+    }
+
+    /**
+     * 새 분류의 책 수 행 목록 (모두 0)
+     * @param categoryId 분류 Id
+     * @return Stripes개의 행
+     */
+    public static List<CategoryBookCount> stripesOf(Integer categoryId) {
+        return stripesOf(categoryId, 0);
+    }
+
+    /**
+     * 분류의 책 수 행 목록 (책 수는 첫 번째 행에)
+     * @param categoryId 분류 Id
+     * @param bookCount 책 수
+     * @return Stripes개의 행
+     */
+    public static List<CategoryBookCount> stripesOf(Integer categoryId, long bookCount) {
+        var stripes = new ArrayList<CategoryBookCount>(Stripes);
+        for (int stripe = 0; stripe < Stripes; stripe++) {
+            stripes.add(new CategoryBookCount(CategoryBookCountId.of(categoryId, stripe), 0 == stripe ? bookCount : 0));
+        }
+        return stripes;
+    }
+}
@@ -0,0 +1,28 @@
+package com.moss.javatest.book.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+/**
+ * 분류별 책 수 행 Id (분류 Id, 행 번호)
+ */
+@Value
+@AllArgsConstructor(staticName = "of")
+//----
+@Embeddable
+public class CategoryBookCountId implements Serializable {
+    // 분류 Id
+    private Integer categoryId;
+
+    // 행 번호 (0 ~ CategoryBookCount.Stripes - 1)
+    private Integer stripe;
+
+    // For JPA
+    protected CategoryBookCountId() {
+        this.categoryId = null;
+        this.stripe = null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.moss.javatest.book.domain.model;
 
+import com.moss.javatest.shared.domain.SingleValueObject;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Value;
@@ -14,11 +15,16 @@ import java.io.Serializable;
 @AllArgsConstructor(staticName = "of")
 //----
 @Embeddable
-public class CategoryId implements Serializable {
+public class CategoryId implements Serializable, SingleValueObject<Integer> {
     private Integer id;
 
     // For JPA
     protected CategoryId() {
         this.id = null;
     }
+
+    @Override
+    public Integer value() {
+        return id;
+    }
 }
@@ -0,0 +1,84 @@
+package com.moss.javatest.book.domain.repository;
+
+import com.moss.javatest.book.domain.model.CategoryBookCount;
+import com.moss.javatest.book.domain.model.CategoryBookCountId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+/**
+ * 분류별 책 수 Repository
+ */
+@Repository
+public interface CategoryBookCountRepository extends JpaRepository<CategoryBookCount, CategoryBookCountId> {
+    /**
+     * 분류의 행 하나 증감
+     * @param categoryId 분류 Id
+     * @param stripe 행 번호
+     * @param delta 증감 값
+     * @return 수정된 행 수, 분류의 행이 없으면 0
+     */
+    @Modifying
+    @Query("update CategoryBookCount c set c.bookCount = c.bookCount + :delta"
+            + " where c.id.categoryId = :categoryId and c.id.stripe = :stripe")
+    int add(@Param("categoryId") Integer categoryId, @Param("stripe") Integer stripe, @Param("delta") long delta);
+
+    /**
+     * 분류의 책 수
+     * @param categoryId 분류 Id
+     * @return 책 수, 행이 없으면 0
+     */
+    @Query("select coalesce(sum(c.bookCount), 0) from CategoryBookCount c where c.id.categoryId = :categoryId")
+    long sumByCategoryId(@Param("categoryId") Integer categoryId);
+
+    /**
+     * 책 테이블에서 분류의 책 수 세기 (COUNT)
+     * 책 수 행이 없는 분류(책 수 행 도입 전에 추가된 분류)의 행을 만들 때 한번만 사용
+     * @param categoryId 분류 Id
+     * @return 책 수
+     */
+    @Query("select count(b) from Book b where b.categoryId.id = :categoryId")
+    long countBooks(@Param("categoryId") Integer categoryId);
+
+    /**
+     * 전체 분류의 책 수
+     * @return 분류별 책 수 목록
+     */
+    @Query("select c.id.categoryId as categoryId, sum(c.bookCount) as bookCount"
+            + " from CategoryBookCount c group by c.id.categoryId")
+    List<CategoryBookCountSum> sumAll();
+
+    /**
+     * 분류의 행 목록을 트랜잭션이 끝날 때까지 잠금 (SELECT ... FOR UPDATE)
+     * 잠금 중에는 같은 분류의 책 추가, 삭제, 분류 이동이 commit 될 수 없다.
+     * @param categoryId 분류 Id
+     * @return 행 목록
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from CategoryBookCount c where c.id.categoryId = :categoryId")
+    List<CategoryBookCount> findAllByCategoryIdForUpdate(@Param("categoryId") Integer categoryId);
+
+    /**
+     * 분류의 행 삭제
+     * @param categoryId 분류 Id
+     * @return 삭제된 행 수
+     */
+    @Modifying
+    @Query("delete from CategoryBookCount c where c.id.categoryId = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Integer categoryId);
+
+    /**
+     * 분류별 책 수 (Projection)
+     */
+    interface CategoryBookCountSum {
+        Integer getCategoryId();
+
+        Long getBookCount();
+    }
+}
@@ -2,11 +2,42 @@ package com.moss.javatest.book.domain.repository;
 
 import com.moss.javatest.book.domain.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * 분류 Repository
  */
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
+    /**
+     * 존재하는 분류 Id 조회 (한번의 IN 쿼리)
+     * @param ids 분류 Id 목록
+     * @return ids 중 존재하는 분류 Id 목록
+     */
+    @Query("select c.id from Category c where c.id in :ids")
+    List<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 전체 분류 Id 조회
+     * @return 분류 Id 목록
+     */
+    @Query("select c.id from Category c")
+    List<Integer> findAllIds();
+
+    /**
+     * 분류 조회 후 트랜잭션이 끝날 때까지 행 잠금 (SELECT ... FOR UPDATE)
+     * @param id 분류 Id
+     * @return 분류
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Category c where c.id = :id")
+    Optional<Category> findByIdForUpdate(@Param("id") Integer id);
 }
@@ -0,0 +1,29 @@
+package com.moss.javatest.book.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 책 일괄 추가 행별 결과
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(staticName = "of")
+public class AddBookBatchResult {
+    // 분류가 없음
+    public static final String CategoryNotFound = "category_not_found";
+    // 묶음 트랜잭션 실패 (묶음의 모든 행)
+    public static final String ChunkFailed = "chunk_failed";
+    // 본문을 읽을 수 없음 (이 위치에서 처리 중단)
+    public static final String InvalidBody = "invalid_body";
+
+    // 요청 내 순서 (0부터 시작)
+    private int index;
+
+    // 추가된 책 Id, 실패한 경우 null
+    private String id;
+
+    // 실패 코드, 성공한 경우 null
+    private String error;
+}
@@ -16,6 +16,9 @@ public class BookDto {
     // 카테고리Id
     private Integer categoryId;
 
+    // 카테고리 이름 (expand=category 인 경우)
+    private String categoryName;
+
     // 책유형
     private BookType bookType;
 
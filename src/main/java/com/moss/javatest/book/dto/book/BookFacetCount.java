@@ -0,0 +1,19 @@
+package com.moss.javatest.book.dto.book;
+
+import com.moss.javatest.book.domain.code.BookType;
+import lombok.Data;
+
+/**
+ * 책유형, 분류 Id 조합별 책 수
+ */
+@Data
+public class BookFacetCount {
+    // 책유형
+    private BookType bookType;
+
+    // 분류 Id
+    private Integer categoryId;
+
+    // 책 수
+    private Long count;
+}
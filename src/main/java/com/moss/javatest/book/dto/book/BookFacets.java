@@ -0,0 +1,18 @@
+package com.moss.javatest.book.dto.book;
+
+import com.moss.javatest.book.domain.code.BookType;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 책 목록 Facet (필터 값별 책 수)
+ */
+@Data
+public class BookFacets {
+    // 책유형별 책 수
+    private Map<BookType, Long> bookTypes;
+
+    // 분류 Id별 책 수
+    private Map<Integer, Long> categories;
+}
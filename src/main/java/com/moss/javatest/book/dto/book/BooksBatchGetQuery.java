@@ -0,0 +1,17 @@
+package com.moss.javatest.book.dto.book;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 여러 책 조회 쿼리
+ */
+@Data
+public class BooksBatchGetQuery {
+    // 책 Id 목록
+    private List<String> ids;
+
+    // 조회할 필드 목록, 없으면 전체 (id는 항상 포함)
+    private List<String> fields;
+}
@@ -15,4 +15,19 @@ public class BooksQuery {
 
     // 분류 Id
     private Integer categoryId;
+
+    // 검색어 (제목 또는 작가에 포함)
+    private String keyword;
+
+    // 커서 (직전 페이지 결과의 next, 첫 페이지인 경우 null)
+    private String cursor;
+
+    // 페이지 크기
+    private Integer size;
+
+    // 조회할 필드 목록 (BookDto 속성 이름), 없으면 전체
+    private List<String> fields;
+
+    // 함께 조회할 연관 정보 목록 (category: 분류 이름)
+    private List<String> expand;
 }
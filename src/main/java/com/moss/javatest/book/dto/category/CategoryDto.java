@@ -12,4 +12,7 @@ public class CategoryDto {
 
     // 이름
     private String name;
+
+    // 책 수
+    private Long bookCount;
 }
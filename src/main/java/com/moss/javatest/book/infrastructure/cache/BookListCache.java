@@ -0,0 +1,148 @@
+package com.moss.javatest.book.infrastructure.cache;
+
+import com.moss.javatest.book.domain.code.BookType;
+import com.moss.javatest.book.dto.book.BookDto;
+import com.moss.javatest.book.dto.book.BooksQuery;
+import com.moss.javatest.book.infrastructure.search.BookDocument;
+import com.moss.javatest.shared.dto.CursorPage;
+import com.moss.javatest.shared.dto.DtoAssembler;
+import com.moss.javatest.shared.infrastructure.cache.LruCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 책 목록 조회 결과 캐시
+ * Key는 정규화한 BooksQuery, 책이 추가, 수정, 삭제되면 그 책을 포함할 수 있는 Key만 무효화
+ */
+@Component
+public class BookListCache {
+    private final LruCache<CacheKey, CursorPage<BookDto>> cache;
+
+    public BookListCache(MeterRegistry meterRegistry,
+                         @Value("${book.list-cache.max-entries:1000}") int maxEntries,
+                         @Value("${book.list-cache.max-bytes:67108864}") long maxBytes) {
+        this.cache = new LruCache<>(maxEntries, maxBytes, BookListCache::weigh);
+
+        FunctionCounter.builder("book.list.cache.hits", cache, LruCache::hitCount).register(meterRegistry);
+        FunctionCounter.builder("book.list.cache.misses", cache, LruCache::missCount).register(meterRegistry);
+        FunctionCounter.builder("book.list.cache.evictions", cache, LruCache::evictionCount).register(meterRegistry);
+        Gauge.builder("book.list.cache.size", cache, LruCache::size).register(meterRegistry);
+        Gauge.builder("book.list.cache.bytes", cache, LruCache::weight).register(meterRegistry);
+    }
+
+    /**
+     * 캐시 조회, 없으면 loader 결과를 캐시
+     * 캐시한 Dto는 호출자 사이에 공유되므로 항상 복사본을 반환 (반환값은 변경해도 캐시에 영향 없음)
+     * @param query 쿼리
+     * @param loader 책 목록 조회
+     * @return 책 페이지 (복사본)
+     */
+    public CursorPage<BookDto> get(BooksQuery query, Supplier<CursorPage<BookDto>> loader) {
+        var page = cache.get(CacheKey.from(query), loader);
+        return null == page ? null : CursorPage.of(DtoAssembler.to(page.getItems(), BookDto.class), page.getNext());
+    }
+
+    /**
+     * 변경된 책을 포함할 수 있는 캐시 무효화
+     * @param documents 변경 전, 후 책
+     */
+    public void invalidate(BookDocument... documents) {
+        cache.invalidateIf(key -> {
+            for (var document : documents) {
+                if (key.mayContain(document)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * 전체 무효화
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 책 페이지 크기(byte) 추정
+     */
+    private static long weigh(CursorPage<BookDto> page) {
+        long weight = 64 + length(page.getNext());
+        for (var book : page.getItems()) {
+            // 객체, 필드 기본 크기 + 문자열
+            weight += 160 + length(book.getId()) + length(book.getTitle())
+                    + length(book.getAuthor()) + length(book.getIsbn13());
+        }
+        return weight;
+    }
+
+    private static long length(String value) {
+        return null == value ? 0 : 40 + value.length() * 2L;
+    }
+
+    /**
+     * 정규화한 BooksQuery
+     */
+    @lombok.Value
+    private static class CacheKey {
+        // 중복 제거, 정렬한 유형 목록, 조건이 없으면 null
+        private List<BookType> bookTypes;
+        private Integer categoryId;
+        // 조건이 없으면 null
+        private String keyword;
+        private String cursor;
+        private Integer size;
+        // 중복 제거, 정렬한 필드 목록, 조건이 없으면 null
+        private List<String> fields;
+
+        private static CacheKey from(BooksQuery query) {
+            List<BookType> bookTypes = null;
+            if (null != query.getBookTypes() && !query.getBookTypes().isEmpty()) {
+                bookTypes = query.getBookTypes().stream()
+                        .filter(Objects::nonNull).distinct().sorted().collect(Collectors.toUnmodifiableList());
+            }
+            String keyword = StringUtils.hasText(query.getKeyword()) ? query.getKeyword() : null;
+            String cursor = StringUtils.hasText(query.getCursor()) ? query.getCursor() : null;
+            List<String> fields = null;
+            if (null != query.getFields() && !query.getFields().isEmpty()) {
+                fields = query.getFields().stream()
+                        .filter(StringUtils::hasText).map(String::trim).distinct().sorted()
+                        .collect(Collectors.toUnmodifiableList());
+            }
+            return new CacheKey(bookTypes, query.getCategoryId(), keyword, cursor, query.getSize(), fields);
+        }
+
+        /**
+         * 이 Key의 결과에 책이 포함될 수 있는지 여부
+         */
+        private boolean mayContain(BookDocument document) {
+            if (null != bookTypes && !bookTypes.contains(document.getBookType())) {
+                return false;
+            }
+            if (null != categoryId && !categoryId.equals(document.getCategoryId())) {
+                return false;
+            }
+            if (null != keyword) {
+                // DB collation에 따라 대소문자를 무시할 수 있으므로 대소문자 무시하고 비교
+                var lowerKeyword = keyword.toLowerCase(Locale.ROOT);
+                return contains(document.getTitle(), lowerKeyword) || contains(document.getAuthor(), lowerKeyword);
+            }
+            return true;
+        }
+
+        private static boolean contains(String value, String lowerKeyword) {
+            return null != value && value.toLowerCase(Locale.ROOT).contains(lowerKeyword);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.moss.javatest.book.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moss.javatest.book.dto.category.CategoryDto;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 분류 목록 Snapshot
+ * 분류가 변경될 때마다 새로 만들어 교체하며, 만든 후에는 변경하지 않는다. (목록의 Dto도 변경 금지)
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CategorySnapshot {
+    // 버전, 새로 만들 때마다 증가
+    private long version;
+
+    // 분류 목록
+    private List<CategoryDto> categories;
+
+    // 분류 Id -> 분류
+    private Map<Integer, CategoryDto> categoryMap;
+
+    // 형식별 분류 목록 본문 (첫 번째가 기본 형식)
+    private List<Body> bodies;
+
+    /**
+     * Snapshot 생성
+     * @param version 버전
+     * @param categories 분류 목록
+     * @param objectMappers 형식 -> 변환 ObjectMapper (순서대로 선택, 첫 번째가 기본 형식)
+     * @return Snapshot
+     */
+    public static CategorySnapshot of(long version, List<CategoryDto> categories, Map<MediaType, ? extends ObjectMapper> objectMappers) {
+        var bodies = new ArrayList<Body>(objectMappers.size());
+        objectMappers.forEach((mediaType, objectMapper) -> {
+            byte[] content;
+            try {
+                content = objectMapper.writeValueAsBytes(categories);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("fail to serialize categories.", e);
+            }
+            var etag = "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+            bodies.add(new Body(mediaType, content, etag));
+        });
+        var categoryMap = categories.stream()
+                .collect(Collectors.toUnmodifiableMap(CategoryDto::getId, Function.identity()));
+        return new CategorySnapshot(version, Collections.unmodifiableList(categories), categoryMap, List.copyOf(bodies));
+    }
+
+    /**
+     * Accept에 맞는 본문 선택 (quality, 구체적인 형식 순)
+     * @param accepts Accept의 MediaType 목록, 비어 있으면 기본 형식
+     * @return 본문, 맞는 형식이 없으면 null
+     */
+    public Body body(List<MediaType> accepts) {
+        if (accepts.isEmpty()) {
+            return bodies.get(0);
+        }
+        var sorted = new ArrayList<>(accepts);
+        MediaType.sortBySpecificityAndQuality(sorted);
+        for (MediaType accept : sorted) {
+            if (accept.getQualityValue() <= 0) {
+                continue;
+            }
+            for (Body body : bodies) {
+                if (accept.isCompatibleWith(body.getMediaType())) {
+                    return body;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 미리 변환한 분류 목록 본문
+     */
+    @Value
+    public static class Body {
+        // 형식
+        private MediaType mediaType;
+
+        // 변환한 분류 목록
+        private byte[] content;
+
+        // 강한 ETag (내용 hash, 인스턴스, 재시작과 무관하게 같은 내용이면 같은 값)
+        private String etag;
+    }
+}
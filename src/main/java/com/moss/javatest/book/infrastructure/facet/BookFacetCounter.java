@@ -0,0 +1,158 @@
+package com.moss.javatest.book.infrastructure.facet;
+
+import com.moss.javatest.book.domain.code.BookType;
+import com.moss.javatest.book.domain.repository.BookRepository;
+import com.moss.javatest.book.dto.book.BookFacets;
+import com.moss.javatest.book.dto.book.BooksQuery;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 책유형, 분류 Id 조합별 책 수 메모리 Counter
+ * BookService의 추가, 수정, 삭제 commit 후 증감하며, 주기적으로 DB GROUP BY 결과로 다시 맞춘다.
+ * (맞추는 중에 증감이 있으면 맞춘 결과를 버리고 다시 시도)
+ */
+@Slf4j
+@Component
+public class BookFacetCounter {
+    private final BookRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    // 다시 맞추는 중 증감이 있으면 재시도하는 최대 횟수
+    private static final int ReconcileRetries = 3;
+
+    private volatile ConcurrentHashMap<FacetKey, LongAdder> counters = new ConcurrentHashMap<>();
+    // 증감 횟수
+    private final AtomicLong modifications = new AtomicLong();
+    // 증감(read)과 Counter 교체(write) 사이 lock (교체 직전에 이전 Counter에 반영되어 사라지는 증감 방지)
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    public BookFacetCounter(BookRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * 책 추가 반영
+     */
+    public void increment(BookType bookType, Integer categoryId) {
+        add(FacetKey.of(bookType, categoryId), 1);
+    }
+
+    /**
+     * 책 삭제 반영
+     */
+    public void decrement(BookType bookType, Integer categoryId) {
+        add(FacetKey.of(bookType, categoryId), -1);
+    }
+
+    private void add(FacetKey facetKey, long delta) {
+        var lock = swapLock.readLock();
+        lock.lock();
+        try {
+            modifications.incrementAndGet();
+            counters.computeIfAbsent(facetKey, key -> new LongAdder()).add(delta);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 책 수정 반영
+     */
+    public void move(BookType oldBookType, Integer oldCategoryId, BookType newBookType, Integer newCategoryId) {
+        if (Objects.equals(oldBookType, newBookType) && Objects.equals(oldCategoryId, newCategoryId)) {
+            return;
+        }
+        decrement(oldBookType, oldCategoryId);
+        increment(newBookType, newCategoryId);
+    }
+
+    /**
+     * 책유형, 분류 조건을 만족하는 Facet 계산 (keyword는 지원하지 않음)
+     * @param query 쿼리
+     * @return Facet
+     */
+    public BookFacets count(BooksQuery query) {
+        var bookTypes = query.getBookTypes();
+        var categoryId = query.getCategoryId();
+        Map<BookType, Long> bookTypeCounts = new TreeMap<>();
+        Map<Integer, Long> categoryCounts = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            if (null != bookTypes && !bookTypes.isEmpty() && !bookTypes.contains(key.getBookType())) {
+                return;
+            }
+            if (null != categoryId && !categoryId.equals(key.getCategoryId())) {
+                return;
+            }
+            long count = counter.sum();
+            if (count <= 0) {
+                return;
+            }
+            if (null != key.getBookType()) {
+                bookTypeCounts.merge(key.getBookType(), count, Long::sum);
+            }
+            if (null != key.getCategoryId()) {
+                categoryCounts.merge(key.getCategoryId(), count, Long::sum);
+            }
+        });
+
+        var facets = new BookFacets();
+        facets.setBookTypes(bookTypeCounts);
+        facets.setCategories(categoryCounts);
+        return facets;
+    }
+
+    /**
+     * DB GROUP BY 결과로 Counter 재설정
+     * 조회 시작부터 교체까지 증감이 없을 때만 교체 (조회 중 증감은 GROUP BY 결과에 포함되었는지 알 수 없으므로)
+     * 교체는 swapLock 안에서 증감 횟수를 확인하고 하므로 확인과 교체 사이의 증감도 놓치지 않음
+     */
+    @Scheduled(fixedDelayString = "${book.facet.reconcile-interval:600000}")
+    public synchronized void reconcile() {
+        for (int attempt = 0; attempt < ReconcileRetries; attempt++) {
+            long before = modifications.get();
+            var reconciled = new ConcurrentHashMap<FacetKey, LongAdder>();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (var facetCount : repository.countFacets(new BooksQuery(), null)) {
+                    var counter = new LongAdder();
+                    counter.add(facetCount.getCount());
+                    reconciled.put(FacetKey.of(facetCount.getBookType(), facetCount.getCategoryId()), counter);
+                }
+            });
+
+            var lock = swapLock.writeLock();
+            lock.lock();
+            try {
+                if (before == modifications.get()) {
+                    counters = reconciled;
+                    log.debug("book facet counters reconciled. size: {}", reconciled.size());
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        log.info("book facet counters not reconciled. (modified while reconciling)");
+    }
+
+    @Value(staticConstructor = "of")
+    private static class FacetKey {
+        private BookType bookType;
+        private Integer categoryId;
+    }
+}
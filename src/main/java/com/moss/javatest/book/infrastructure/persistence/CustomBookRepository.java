@@ -1,9 +1,15 @@
 package com.moss.javatest.book.infrastructure.persistence;
 
+import com.moss.javatest.book.domain.model.Book;
 import com.moss.javatest.book.domain.model.BookId;
 import com.moss.javatest.book.dto.book.BookDto;
+import com.moss.javatest.book.dto.book.BookFacetCount;
 import com.moss.javatest.book.dto.book.BooksQuery;
+import com.moss.javatest.book.infrastructure.search.BookDocument;
+import com.moss.javatest.shared.dto.CursorPage;
+import com.mysema.commons.lang.CloseableIterator;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CustomBookRepository {
@@ -14,9 +20,95 @@ public interface CustomBookRepository {
     BookId newIdentity();
 
     /**
-     * 책 목록 조회
+     * 책 목록 일괄 추가 (JDBC batch insert)
+     * 트랜잭션 내에서 호출해야 하며, 추가 후 영속성 컨텍스트를 비운다.
+     * @param books 추가할 책 목록
+     */
+    void insertAll(List<Book> books);
+
+    /**
+     * 책 수정 (Entity 조회 없이 UPDATE 한번, 분류 이동 포함)
+     * 영속성 컨텍스트를 거치지 않으므로 같은 트랜잭션에서 조회한 Entity에는 반영되지 않는다.
+     * @param book 수정할 값을 가진 책 (id로 대상 지정)
+     * @return 수정된 행 수, 없으면 0
+     */
+    long modify(Book book);
+
+    /**
+     * 이전 값이 expected와 같을 때만 책 수정 (조건부 UPDATE 한번)
+     * @param book 수정할 값을 가진 책 (id로 대상 지정)
+     * @param expected 예상하는 이전 값 (유형, 분류 Id, 제목, 작가)
+     * @return 수정된 행 수, 없거나 이전 값이 다르면 0
+     */
+    long modify(Book book, BookDocument expected);
+
+    /**
+     * 책 삭제 (조회 없이 DELETE 한번)
+     * @param id 책 Id
+     * @return 삭제된 행 수, 없으면 0
+     */
+    long remove(BookId id);
+
+    /**
+     * 이전 값이 expected와 같을 때만 책 삭제 (조건부 DELETE 한번)
+     * @param expected 예상하는 이전 값 (id로 대상 지정)
+     * @return 삭제된 행 수, 없거나 이전 값이 다르면 0
+     */
+    long remove(BookDocument expected);
+
+    /**
+     * 책 조회
+     * @param id 책 Id
+     * @param fields 조회할 필드 목록, 없으면 전체
+     * @return 책Dto, 없으면 null
+     */
+    BookDto findDto(String id, Collection<String> fields);
+
+    /**
+     * 책 조회 후 트랜잭션이 끝날 때까지 행 잠금 (SELECT ... FOR UPDATE)
+     * 수정, 삭제 전 값을 동시 수정과 겹치지 않게 읽기 위해 사용하며 트랜잭션 내에서 호출해야 한다.
+     * @param id 책 Id
+     * @param fields 조회할 필드 목록, 없으면 전체
+     * @return 책Dto, 없으면 null
+     */
+    BookDto findDtoForUpdate(String id, Collection<String> fields);
+
+    /**
+     * 여러 책 조회 (Id는 항상 포함)
+     * @param ids 책 Id 목록
+     * @param fields 조회할 필드 목록, 없으면 전체
+     * @return 책Dto 목록 (순서 없음, 없는 Id는 제외)
+     */
+    List<BookDto> findAllDto(Collection<String> ids, Collection<String> fields);
+
+    /**
+     * 책 목록 조회 (title, id 순 Keyset Pagination)
      * @param query 쿼리
-     * @return 책Dto 목록
+     * @return 책Dto 페이지
+     */
+    CursorPage<BookDto> findAll(BooksQuery query);
+
+    /**
+     * 책 목록 조회 (title, id 순 Keyset Pagination)
+     * @param query 쿼리
+     * @param ids keyword 검색 결과 책 Id 목록, null이면 keyword를 LIKE로 검색
+     * @return 책Dto 페이지
+     */
+    CursorPage<BookDto> findAll(BooksQuery query, Collection<String> ids);
+
+    /**
+     * 책 목록 전체를 Scroll로 조회 (cursor, size는 무시)
+     * @param query 쿼리
+     * @param fetchSize JDBC fetch size
+     * @return 책Dto Iterator, 사용 후 close 필요
+     */
+    CloseableIterator<BookDto> iterate(BooksQuery query, int fetchSize);
+
+    /**
+     * 책유형, 분류 Id 조합별 책 수 조회 (GROUP BY)
+     * @param query 쿼리 (cursor, size는 무시)
+     * @param ids keyword 검색 결과 책 Id 목록, null이면 keyword를 LIKE로 검색
+     * @return 책유형, 분류 Id 조합별 책 수
      */
-    List<BookDto> findAll(BooksQuery query);
+    List<BookFacetCount> countFacets(BooksQuery query, Collection<String> ids);
 }
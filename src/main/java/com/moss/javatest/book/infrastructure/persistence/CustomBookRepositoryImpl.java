@@ -2,59 +2,413 @@ package com.moss.javatest.book.infrastructure.persistence;
 
 import com.moss.javatest.book.domain.model.*;
 import com.moss.javatest.book.dto.book.BookDto;
+import com.moss.javatest.book.dto.book.BookFacetCount;
 import com.moss.javatest.book.dto.book.BooksQuery;
+import com.moss.javatest.book.infrastructure.search.BookDocument;
+import com.moss.javatest.shared.dto.CursorPage;
+import com.moss.javatest.shared.exception.BadRequestException;
+import com.moss.javatest.shared.infrastructure.querydsl.InParameters;
+import com.moss.javatest.shared.infrastructure.querydsl.KeysetCursor;
 import com.moss.javatest.shared.infrastructure.querydsl.Predicates;
+import com.moss.javatest.shared.infrastructure.querydsl.QueryPlanCache;
 import com.moss.javatest.shared.infrastructure.querydsl.SharedQuerydslRepositorySupport;
+import com.moss.javatest.shared.util.UuidUtils;
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.jpa.JPQLQuery;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.util.StringUtils;
 
 import javax.annotation.PostConstruct;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class CustomBookRepositoryImpl extends SharedQuerydslRepositorySupport implements CustomBookRepository {
+    // 책 목록 조회 조건 Param
+    private static final Param<Collection> BookTypesParam = new Param<>(Collection.class, "bookTypes");
+    private static final Param<Integer> CategoryIdParam = new Param<>(Integer.class, "categoryId");
+    private static final Param<Collection> IdsParam = new Param<>(Collection.class, "ids");
+    private static final Param<String> KeywordParam = new Param<>(String.class, "keyword");
+    private static final Param<String> CursorTitleParam = new Param<>(String.class, "cursorTitle");
+    private static final Param<String> CursorIdParam = new Param<>(String.class, "cursorId");
+    // 필터 조건 Param (목록 조회 Plan, 내보내기, Facet 조회가 같은 정의 사용)
+    private static final List<Param<?>> FilterParams = List.of(BookTypesParam, CategoryIdParam, IdsParam, KeywordParam);
 
-    public CustomBookRepositoryImpl() {
+    // 책 목록 조회 조건 형태별 JPQL
+    private final QueryPlanCache listPlans = new QueryPlanCache();
+
+    public CustomBookRepositoryImpl(MeterRegistry meterRegistry) {
         super(Book.class, QBook.class, QBook.book);
 
-        final var book = QBook.book;
-        // https://github.com/querydsl/querydsl/issues/1214
-        // 더 좋은 방법을 찾고 싶다.
-        var newExpressions = Arrays.stream(getExpressions()).map(expression -> {
-            if (expression.toString().equals("book.categoryId.id")) {
-                return as(expression, "categoryId");
-            }
-            return expression;
-        }).toArray(Expression[]::new);
-        setExpressions(newExpressions);
+        FunctionCounter.builder("book.list.plan.cache.hits", listPlans, QueryPlanCache::hitCount).register(meterRegistry);
+        FunctionCounter.builder("book.list.plan.cache.misses", listPlans, QueryPlanCache::missCount).register(meterRegistry);
+        Gauge.builder("book.list.plan.cache.hit.ratio", listPlans, QueryPlanCache::hitRatio).register(meterRegistry);
+        Gauge.builder("book.list.plan.cache.size", listPlans, QueryPlanCache::size).register(meterRegistry);
     }
 
     /**
      * 새 Id 생성
+     * 시간순 UUID를 사용하여 INSERT가 인덱스 끝에 추가되도록 함 (임의 UUID는 B-tree 전체에 흩어짐)
      */
     public BookId newIdentity() {
-        return BookId.of(UUID.randomUUID().toString());
+        return BookId.of(UuidUtils.timeOrdered().toString());
+    }
+
+    /**
+     * 책 목록 일괄 추가
+     * merge(save) 대신 persist 하므로 행마다 SELECT 하지 않고,
+     * flush 시 hibernate.jdbc.batch_size 단위로 묶어서 INSERT
+     * @param books 추가할 책 목록
+     */
+    @Override
+    public void insertAll(List<Book> books) {
+        var entityManager = getEntityManager();
+        for (var book : books) {
+            entityManager.persist(book);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * 책 수정 (분류 포함)
+     * UPDATE Books SET ... WHERE id = ?
+     * @param book 수정할 값을 가진 책
+     * @return 수정된 행 수
+     */
+    @Override
+    public long modify(Book book) {
+        return modify(book, QBook.book.id.id.eq(book.getId().getId()));
+    }
+
+    /**
+     * 책 수정 (이전 값 조건)
+     * UPDATE Books SET ... WHERE id = ? AND book_type = ? AND category_id = ? AND title = ? AND author = ?
+     * @param book 수정할 값을 가진 책
+     * @param expected 예상하는 이전 값
+     * @return 수정된 행 수
+     */
+    @Override
+    public long modify(Book book, BookDocument expected) {
+        return modify(book, matches(book.getId().getId(), expected));
+    }
+
+    private long modify(Book book, BooleanExpression where) {
+        final var qBook = QBook.book;
+        return update(qBook)
+                .set(qBook.categoryId.id, null == book.getCategoryId() ? null : book.getCategoryId().getId())
+                .set(qBook.bookType, book.getBookType())
+                .set(qBook.title, book.getTitle())
+                .set(qBook.author, book.getAuthor())
+                .set(qBook.published, book.getPublished())
+                .set(qBook.isbn13, book.getIsbn13())
+                .where(where)
+                .execute();
+    }
+
+    /**
+     * 책 삭제
+     * DELETE FROM Books WHERE id = ?
+     * @param id 책 Id
+     * @return 삭제된 행 수
+     */
+    @Override
+    public long remove(BookId id) {
+        final var book = QBook.book;
+        return delete(book)
+                .where(book.id.id.eq(id.getId()))
+                .execute();
+    }
+
+    /**
+     * 책 삭제 (이전 값 조건)
+     * DELETE FROM Books WHERE id = ? AND book_type = ? AND category_id = ? AND title = ? AND author = ?
+     * @param expected 예상하는 이전 값
+     * @return 삭제된 행 수
+     */
+    @Override
+    public long remove(BookDocument expected) {
+        return delete(QBook.book)
+                .where(matches(expected.getId(), expected))
+                .execute();
+    }
+
+    /**
+     * Id와 이전 값(Facet, 캐시 무효화에 쓰는 필드)이 모두 같은 행 조건
+     * @param id 책 Id
+     * @param expected 예상하는 이전 값
+     * @return 조건
+     */
+    private static BooleanExpression matches(String id, BookDocument expected) {
+        final var book = QBook.book;
+        return book.id.id.eq(id)
+                .and(eqOrNull(book.bookType, expected.getBookType()))
+                .and(eqOrNull(book.categoryId.id, expected.getCategoryId()))
+                .and(eqOrNull(book.title, expected.getTitle()))
+                .and(eqOrNull(book.author, expected.getAuthor()));
+    }
+
+    private static <T> BooleanExpression eqOrNull(SimpleExpression<T> path, T value) {
+        return null == value ? path.isNull() : path.eq(value);
+    }
+
+    /**
+     * 책 조회
+     * @param id 책 Id
+     * @param fields 조회할 필드 목록
+     * @return 책Dto, 없으면 null
+     */
+    @Override
+    public BookDto findDto(String id, Collection<String> fields) {
+        final var book = QBook.book;
+        return select(BookDto.class, getExpressions(fields))
+                .from(book)
+                .where(book.id.id.eq(id))
+                .fetchOne();
+    }
+
+    /**
+     * 책 조회 후 행 잠금
+     * SELECT ... FROM Books WHERE id = ? FOR UPDATE
+     * @param id 책 Id
+     * @param fields 조회할 필드 목록
+     * @return 책Dto, 없으면 null
+     */
+    @Override
+    public BookDto findDtoForUpdate(String id, Collection<String> fields) {
+        final var book = QBook.book;
+        return forUpdate(select(BookDto.class, getExpressions(fields))
+                .from(book)
+                .where(book.id.id.eq(id)))
+                .fetchOne();
+    }
+
+    /**
+     * 여러 책 조회
+     * 중복을 제거하고 InParameters.MaxSize개씩 나누어 IN 쿼리로 조회
+     * @param ids 책 Id 목록
+     * @param fields 조회할 필드 목록
+     * @return 책Dto 목록
+     */
+    @Override
+    public List<BookDto> findAllDto(Collection<String> ids, Collection<String> fields) {
+        final var book = QBook.book;
+        var expressions = getExpressions(fields, "id");
+        var result = new ArrayList<BookDto>();
+        for (var chunk : InParameters.chunks(ids, InParameters.MaxSize)) {
+            result.addAll(select(BookDto.class, expressions)
+                    .from(book)
+                    .where(book.id.id.in(chunk))
+                    .fetch());
+        }
+        return result;
+    }
+
+    /**
+     * 책 목록 조회
+     * (title, id) 순으로 정렬하고 커서 이후의 행만 조회하므로 page 위치와 무관하게 비용이 일정
+     * @param query 쿼리
+     * @return 책 페이지
+     */
+    @Override
+    public CursorPage<BookDto> findAll(BooksQuery query) {
+        return findAll(query, null);
     }
 
     /**
      * 책 목록 조회
+     * keyword 검색 결과(ids)가 있으면 LIKE 대신 Id 조건으로 조회
      * @param query 쿼리
-     * @return
+     * @param ids keyword 검색 결과 책 Id 목록
+     * @return 책 페이지
      */
     @Override
-    public List<BookDto> findAll(BooksQuery query) {
+    public CursorPage<BookDto> findAll(BooksQuery query, Collection<String> ids) {
+        final int size = limit(query.getSize());
+        if (null != ids && ids.isEmpty()) {
+            return CursorPage.of(List.of(), null);
+        }
+
+        // 조건 값 (Param 이름 -> 값), 있는 조건의 Param 이름 목록이 조건 형태
+        var bindings = filterBindings(query, ids);
+        if (StringUtils.hasText(query.getCursor())) {
+            var values = KeysetCursor.decode(query.getCursor(), 2);
+            // Id는 BINARY(16)로 변환되므로 UUID 형식이 아니면 조회 전에 거절
+            if (!BookId.isValid(values[1])) {
+                throw new BadRequestException("invalid cursor '" + query.getCursor() + "'");
+            }
+            bindings.put(CursorTitleParam.getName(), values[0]);
+            bindings.put(CursorIdParam.getName(), values[1]);
+        }
+
+        // 커서 생성을 위해 title, id는 항상 조회
+        // (같은 필드 조합이면 같은 배열을 반환하므로 배열 자체(identity)를 형태에 포함)
+        var expressions = getExpressions(query.getFields(), "id", "title");
+        var params = Set.copyOf(bindings.keySet());
+        List<Object> shape = List.of(expressions, params);
+        var list = listPlans.fetch(getEntityManager(), shape, () -> listTemplate(expressions, params), bindings, size + 1);
+
+        // 다음 페이지 존재 여부 확인을 위해 1건 더 조회
+        String next = null;
+        if (list.size() > size) {
+            list = new ArrayList<>(list.subList(0, size));
+            var last = list.get(size - 1);
+            next = KeysetCursor.encode(last.getTitle(), last.getId());
+        }
+        excludeKeys(list, query.getFields());
+        return CursorPage.of(list, next);
+    }
+
+    /**
+     * 책 목록 조회 쿼리 (조건 형태별로 한번만 작성)
+     * 값 대신 Param을 사용하며, (title, id) 순으로 정렬하고 커서 이후의 행만 조회
+     * @param expressions 조회할 Expression 목록
+     * @param params 있는 조건의 Param 이름 목록
+     * @return 책 목록 쿼리
+     */
+    private JPQLQuery<BookDto> listTemplate(Expression<?>[] expressions, Set<String> params) {
         final var book = QBook.book;
-        var list = select(BookDto.class, getExpressions())
+        var where = filter(params)
+                // JPQL은 Row Value 비교를 지원하지 않으므로 (title, id) > (?, ?)를 풀어서 작성
+                .and().optional(params.contains(CursorTitleParam.getName())
+                        ? book.title.gt(CursorTitleParam)
+                            .or(book.title.eq(CursorTitleParam).and(book.id.id.gt(CursorIdParam))) : null)
+                .end();
+        return select(BookDto.class, expressions)
                 .from(book)
-                .where(Predicates.start()
-                    .optional(book.bookType::in, query.getBookTypes())
-                    .and().optional(book.categoryId.id::eq, query.getCategoryId())
-                .end())
-                .orderBy(book.title.asc())
-                .fetch();
-
-        return list;
+                .where(where)
+                .orderBy(book.title.asc(), book.id.id.asc());
+    }
+
+    /**
+     * 요청하지 않은 커서용 필드(id, title) 제거
+     * @param list 책Dto 목록
+     * @param fields 요청 필드 목록
+     */
+    private void excludeKeys(List<BookDto> list, Collection<String> fields) {
+        if (null == fields || fields.isEmpty()) {
+            return;
+        }
+        boolean excludeId = fields.stream().noneMatch(field -> "id".equals(field.trim()));
+        boolean excludeTitle = fields.stream().noneMatch(field -> "title".equals(field.trim()));
+        for (var dto : list) {
+            if (excludeId) {
+                dto.setId(null);
+            }
+            if (excludeTitle) {
+                dto.setTitle(null);
+            }
+        }
+    }
+
+    /**
+     * 책 목록 전체를 Scroll로 조회
+     * DTO Projection으로 조회하므로 영속성 컨텍스트에 Entity가 쌓이지 않아 메모리 사용량이 일정
+     * @param query 쿼리
+     * @param fetchSize JDBC fetch size
+     * @return 책Dto Iterator
+     */
+    @Override
+    public CloseableIterator<BookDto> iterate(BooksQuery query, int fetchSize) {
+        final var book = QBook.book;
+        var bindings = filterBindings(query, null);
+        var select = select(BookDto.class, getExpressions(query.getFields()))
+                .from(book)
+                .where(filter(bindings.keySet()).end())
+                .orderBy(book.id.id.asc());
+        return scroll(bind(select, bindings), fetchSize);
+    }
+
+    /**
+     * 책유형, 분류 Id 조합별 책 수 조회
+     * @param query 쿼리
+     * @param ids keyword 검색 결과 책 Id 목록
+     * @return 책유형, 분류 Id 조합별 책 수
+     */
+    @Override
+    public List<BookFacetCount> countFacets(BooksQuery query, Collection<String> ids) {
+        final var book = QBook.book;
+        var bindings = filterBindings(query, ids);
+        var select = select(BookFacetCount.class,
+                    book.bookType,
+                    book.categoryId.id,
+                    as(book.count(), "count"))
+                .from(book)
+                .where(filter(bindings.keySet()).end())
+                .groupBy(book.bookType, book.categoryId.id);
+        return bind(select, bindings).fetch();
+    }
+
+    /**
+     * 책 목록 필터 조건 값
+     * @param query 쿼리
+     * @param ids keyword 검색 결과 책 Id 목록, null이면 keyword를 LIKE로 검색
+     * @return 필터 Param 이름 -> 값 (있는 조건만)
+     */
+    private Map<String, Object> filterBindings(BooksQuery query, Collection<String> ids) {
+        var bindings = new HashMap<String, Object>();
+        if (null != query.getBookTypes() && !query.getBookTypes().isEmpty()) {
+            bindings.put(BookTypesParam.getName(), InParameters.pad(new ArrayList<>(new LinkedHashSet<>(query.getBookTypes()))));
+        }
+        if (null != query.getCategoryId()) {
+            bindings.put(CategoryIdParam.getName(), query.getCategoryId());
+        }
+        if (null != ids) {
+            bindings.put(IdsParam.getName(), InParameters.pad(new ArrayList<>(new LinkedHashSet<>(ids))));
+        } else if (StringUtils.hasText(query.getKeyword())) {
+            // 색인과 같이 대소문자 무시 (소문자 keyword, lower(컬럼))
+            bindings.put(KeywordParam.getName(), likeSide(query.getKeyword().toLowerCase(Locale.ROOT)));
+        }
+        return bindings;
+    }
+
+    /**
+     * 책 목록 필터 조건 (값 대신 Param으로 작성)
+     * @param params 있는 조건의 Param 이름 목록
+     * @return 필터 조건이 적용된 Predicates
+     */
+    private Predicates filter(Set<String> params) {
+        final var book = QBook.book;
+        return Predicates.start()
+                .optional(params.contains(BookTypesParam.getName())
+                        ? Expressions.booleanTemplate("{0} in ({1})", book.bookType, BookTypesParam) : null)
+                .and().optional(params.contains(CategoryIdParam.getName())
+                        ? book.categoryId.id.eq(CategoryIdParam) : null)
+                .and().optional(params.contains(IdsParam.getName())
+                        ? Expressions.booleanTemplate("{0} in ({1})", book.id.id, IdsParam) : null)
+                .and().optional(params.contains(KeywordParam.getName())
+                        ? book.title.lower().like(KeywordParam, LikeEscape)
+                            .or(book.author.lower().like(KeywordParam, LikeEscape)) : null);
+    }
+
+    /**
+     * 필터 조건 Param에 값 바인딩
+     * @param query 조회 쿼리
+     * @param bindings 필터 Param 이름 -> 값
+     * @param <T> 반환값 Type
+     * @return 값을 바인딩한 쿼리
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> JPQLQuery<T> bind(JPQLQuery<T> query, Map<String, Object> bindings) {
+        for (var param : FilterParams) {
+            if (bindings.containsKey(param.getName())) {
+                query.set((Param) param, bindings.get(param.getName()));
+            }
+        }
+        return query;
     }
 }
@@ -0,0 +1,38 @@
+package com.moss.javatest.book.infrastructure.search;
+
+import com.moss.javatest.book.domain.code.BookType;
+import com.moss.javatest.book.domain.model.Book;
+import com.moss.javatest.book.dto.book.BookDto;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * 책 검색 색인 문서
+ */
+@Value
+@AllArgsConstructor(staticName = "of")
+public class BookDocument {
+    // Id
+    private String id;
+
+    // 제목
+    private String title;
+
+    // 작가
+    private String author;
+
+    // 책유형
+    private BookType bookType;
+
+    // 분류 Id
+    private Integer categoryId;
+
+    public static BookDocument from(Book book) {
+        return of(book.getId().getId(), book.getTitle(), book.getAuthor(), book.getBookType(),
+                null == book.getCategoryId() ? null : book.getCategoryId().getId());
+    }
+
+    public static BookDocument from(BookDto book) {
+        return of(book.getId(), book.getTitle(), book.getAuthor(), book.getBookType(), book.getCategoryId());
+    }
+}
@@ -0,0 +1,148 @@
+package com.moss.javatest.book.infrastructure.search;
+
+import com.moss.javatest.book.domain.repository.BookRepository;
+import com.moss.javatest.book.dto.book.BooksQuery;
+import com.moss.javatest.shared.infrastructure.search.NGramIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 책 제목, 작가 검색 색인
+ * 시작시 전체 책으로 색인을 만들고, 이후에는 이 인스턴스의 BookService 추가, 수정, 삭제를 반영
+ * 다른 인스턴스의 변경은 주기적으로 색인을 다시 만들 때 반영 (그 전까지는 검색 결과에 빠지거나 남을 수 있음)
+ */
+@Slf4j
+@Component
+public class BookSearchIndex {
+    // 색인 검색 결과 최대 수, 초과하면 색인을 사용하지 않음
+    public static final int CandidateLimit = 1000;
+
+    private final BookRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    private volatile NGramIndex<String, BookDocument> index = new NGramIndex<>();
+    // 최초 색인 생성 완료 여부
+    private volatile boolean ready = false;
+
+    // 색인 교체와 변경 반영을 직렬화
+    private final Object changeLock = new Object();
+    // 색인 생성 중 들어온 변경 (생성 중이 아니면 null), 생성 후 새 색인에 다시 반영
+    private List<Consumer<NGramIndex<String, BookDocument>>> pendingChanges = null;
+
+    public BookSearchIndex(BookRepository repository, PlatformTransactionManager transactionManager,
+                           @Value("${book.export.fetch-size:1000}") int fetchSize) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * 전체 책으로 색인 생성
+     * 시작시, 그리고 다른 인스턴스의 변경을 반영하기 위해 주기적으로 실행
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${book.search-index.refresh-interval:600000}",
+            initialDelayString = "${book.search-index.refresh-interval:600000}")
+    public synchronized void rebuild() {
+        synchronized (changeLock) {
+            pendingChanges = new ArrayList<>();
+        }
+        var rebuilt = new NGramIndex<String, BookDocument>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (var iterator = repository.iterate(new BooksQuery(), fetchSize)) {
+                    while (iterator.hasNext()) {
+                        var document = BookDocument.from(iterator.next());
+                        rebuilt.put(document.getId(), document, document.getTitle(), document.getAuthor());
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (changeLock) {
+                pendingChanges = null;
+            }
+            throw e;
+        }
+        synchronized (changeLock) {
+            // 읽는 동안 commit 된 변경을 순서대로 다시 반영 (같은 변경을 두번 반영해도 결과는 같음)
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            index = rebuilt;
+        }
+        ready = true;
+        log.info("book search index rebuilt. size: {}", rebuilt.size());
+    }
+
+    /**
+     * 문서 추가 또는 교체
+     * @param document 책 문서
+     */
+    public void put(BookDocument document) {
+        apply(target -> target.put(document.getId(), document, document.getTitle(), document.getAuthor()));
+    }
+
+    /**
+     * 문서 삭제
+     * @param id 책 Id
+     */
+    public void remove(String id) {
+        apply(target -> target.remove(id));
+    }
+
+    /**
+     * 현재 색인에 변경 반영, 색인 생성 중이면 생성 후 새 색인에도 반영하도록 보관
+     */
+    private void apply(Consumer<NGramIndex<String, BookDocument>> change) {
+        synchronized (changeLock) {
+            change.accept(index);
+            if (null != pendingChanges) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    /**
+     * 문서 조회
+     * @param id 책 Id
+     * @return 책 문서, 없으면 null
+     */
+    public BookDocument get(String id) {
+        return index.get(id);
+    }
+
+    /**
+     * keyword를 제목 또는 작가에 포함하는 책 Id 검색
+     * 유형, 분류 조건도 함께 적용한다.
+     * @param query 쿼리
+     * @return 책 Id 목록, 결과가 CandidateLimit를 넘거나 색인 생성 전이면 null
+     */
+    public List<String> search(BooksQuery query) {
+        if (!ready) {
+            return null;
+        }
+        var bookTypes = query.getBookTypes();
+        var categoryId = query.getCategoryId();
+        // CandidateLimit + 1개를 찾으면 더 확인하지 않음
+        var documents = index.search(query.getKeyword(), document ->
+                (null == bookTypes || bookTypes.isEmpty() || bookTypes.contains(document.getBookType()))
+                && (null == categoryId || Objects.equals(categoryId, document.getCategoryId())), CandidateLimit + 1);
+        if (documents.size() > CandidateLimit) {
+            return null;
+        }
+        return documents.stream().map(BookDocument::getId).collect(Collectors.toList());
+    }
+}
@@ -1,44 +1,205 @@
 package com.moss.javatest.book.service;
 
 
+import com.moss.javatest.book.domain.code.BookType;
 import com.moss.javatest.book.domain.model.Book;
 import com.moss.javatest.book.domain.model.BookId;
 import com.moss.javatest.book.domain.model.CategoryId;
 import com.moss.javatest.book.domain.repository.BookRepository;
 import com.moss.javatest.book.dto.book.*;
+import com.moss.javatest.book.infrastructure.cache.BookListCache;
+import com.moss.javatest.book.infrastructure.facet.BookFacetCounter;
+import com.moss.javatest.book.infrastructure.search.BookDocument;
+import com.moss.javatest.book.infrastructure.search.BookSearchIndex;
+import com.moss.javatest.shared.dto.BatchGetResult;
+import com.moss.javatest.shared.dto.CursorPage;
 import com.moss.javatest.shared.dto.DtoAssembler;
+import com.moss.javatest.shared.exception.BadRequestException;
+import com.moss.javatest.shared.exception.InvalidBodyException;
+import com.moss.javatest.shared.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * 책 서비스
  */
+@Slf4j
 @Service
 public class BookService {
+    // 분류 이름 확장
+    private static final String ExpandCategory = "category";
+    // 책 문서 필드 (색인에 없을 때 조회)
+    private static final List<String> DocumentFields = List.of("id", "title", "author", "bookType", "categoryId");
+
     private final BookRepository repository;
     private final CategoryService categoryService;
+    private final BookSearchIndex searchIndex;
+    private final BookFacetCounter facetCounter;
+    private final BookListCache listCache;
+    private final TransactionTemplate transactionTemplate;
+    // 내보내기 JDBC fetch size
+    private final int exportFetchSize;
+    // 일괄 추가시 트랜잭션 하나로 처리할 행 수
+    private final int batchChunkSize;
 
-    public BookService(BookRepository repository, CategoryService categoryService) {
+    public BookService(BookRepository repository, CategoryService categoryService, BookSearchIndex searchIndex,
+                       BookFacetCounter facetCounter, BookListCache listCache,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${book.export.fetch-size:1000}") int exportFetchSize,
+                       @Value("${book.batch.chunk-size:1000}") int batchChunkSize) {
         this.repository = repository;
         this.categoryService = categoryService;
+        this.searchIndex = searchIndex;
+        this.facetCounter = facetCounter;
+        this.listCache = listCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.exportFetchSize = exportFetchSize;
+        this.batchChunkSize = batchChunkSize;
     }
 
     /**
      * 책 추가
+     * 분류 존재 확인은 트랜잭션(DB 커넥션) 밖에서 먼저 함
      * @param command 책 추가 Command
      */
-    @Transactional
     public AddBookResult add(AddBookCommand command) {
         // 분류 존재 확인
         if (!categoryService.exist(command.getCategoryId())) {
             throw new RuntimeException("category is not exist.");
         }
-        
-        // 생성 (생성을 Service에서 하는 것이 맞는가? Dto(Command)에서 하는 것이 맞는가?)
+
+        return transactionTemplate.execute(status -> {
+            // 생성 (생성을 Service에서 하는 것이 맞는가? Dto(Command)에서 하는 것이 맞는가?)
+            var book = create(command);
+
+            // 저장 (분류별 책 수 포함)
+            repository.save(book);
+            categoryService.addBookCounts(Map.of(command.getCategoryId(), 1L));
+            var document = BookDocument.from(book);
+            TransactionUtils.afterCommit(() -> {
+                searchIndex.put(document);
+                facetCounter.increment(document.getBookType(), document.getCategoryId());
+                listCache.invalidate(document);
+            });
+
+            // 결과
+            AddBookResult result = new AddBookResult();
+            result.setId(book.getId().getId());
+            return result;
+        });
+    }
+
+    /**
+     * 책 일괄 추가
+     * batchChunkSize 행씩 트랜잭션 하나로 추가하며, 한 묶음이 실패해도 이미 커밋된 묶음은 유지
+     * 본문을 읽을 수 없으면 이미 읽은 행까지 처리하고 읽지 못한 위치에 invalid_body 결과를 추가
+     * @param commands 책 추가 Command 목록 (요청 본문에서 읽는 대로 전달)
+     * @return 행별 결과 (요청 순서)
+     */
+    public List<AddBookBatchResult> addAll(Iterator<AddBookCommand> commands) {
+        var results = new ArrayList<AddBookBatchResult>();
+        var chunk = new ArrayList<AddBookCommand>(batchChunkSize);
+        boolean invalidBody = false;
+        try {
+            while (commands.hasNext()) {
+                chunk.add(commands.next());
+                if (chunk.size() >= batchChunkSize) {
+                    results.addAll(addChunk(results.size(), chunk));
+                    chunk.clear();
+                }
+            }
+        } catch (InvalidBodyException e) {
+            log.debug("book batch body is invalid. index: {}", results.size() + chunk.size(), e);
+            invalidBody = true;
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(addChunk(results.size(), chunk));
+        }
+        if (invalidBody) {
+            results.add(AddBookBatchResult.of(results.size(), null, AddBookBatchResult.InvalidBody));
+        }
+        return results;
+    }
+
+    /**
+     * 책 한 묶음 추가 (트랜잭션 하나)
+     * 분류 존재 확인은 묶음당 IN 쿼리 한번, 추가는 JDBC batch insert
+     * @param offset 묶음 첫 행의 요청 내 순서
+     * @param commands 책 추가 Command 목록
+     * @return 행별 결과, 트랜잭션이 실패하면 모든 행이 chunk_failed
+     */
+    private List<AddBookBatchResult> addChunk(int offset, List<AddBookCommand> commands) {
+        try {
+            return transactionTemplate.execute(status -> {
+                // 분류 존재 확인
+                var categoryIds = categoryService.existIds(commands.stream()
+                        .map(AddBookCommand::getCategoryId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()));
+
+                // 생성
+                var results = new ArrayList<AddBookBatchResult>(commands.size());
+                var books = new ArrayList<Book>(commands.size());
+                for (int i = 0; i < commands.size(); i++) {
+                    var command = commands.get(i);
+                    if (!categoryIds.contains(command.getCategoryId())) {
+                        results.add(AddBookBatchResult.of(offset + i, null, AddBookBatchResult.CategoryNotFound));
+                        continue;
+                    }
+                    var book = create(command);
+                    books.add(book);
+                    results.add(AddBookBatchResult.of(offset + i, book.getId().getId(), null));
+                }
+
+                // 저장 (분류별 책 수 포함)
+                repository.insertAll(books);
+                categoryService.addBookCounts(books.stream()
+                        .collect(Collectors.groupingBy(book -> book.getCategoryId().getId(), Collectors.counting())));
+                var documents = books.stream().map(BookDocument::from).collect(Collectors.toList());
+                TransactionUtils.afterCommit(() -> {
+                    for (var document : documents) {
+                        searchIndex.put(document);
+                        facetCounter.increment(document.getBookType(), document.getCategoryId());
+                    }
+                    listCache.invalidateAll();
+                });
+                return results;
+            });
+        } catch (RuntimeException e) {
+            // 원인은 로그로 남기고 응답에는 고정 코드만 전달
+            log.warn("book batch chunk failed. offset: {}, size: {}", offset, commands.size(), e);
+            var results = new ArrayList<AddBookBatchResult>(commands.size());
+            for (int i = 0; i < commands.size(); i++) {
+                results.add(AddBookBatchResult.of(offset + i, null, AddBookBatchResult.ChunkFailed));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * 책 생성
+     * @param command 책 추가 Command
+     * @return 새 Id를 가진 책
+     */
+    private Book create(AddBookCommand command) {
         BookId id = repository.newIdentity();
-        var book = Book.builder()
+        return Book.builder()
                 .id(id)
                 .bookType(command.getBookType())
                 .title(command.getTitle())
@@ -47,14 +208,61 @@ public class BookService {
                 .published(command.getPublished())
                 .isbn13(command.getIsbn13())
                 .build();
+    }
 
-        // 저장
-        repository.save(book);
+    /**
+     * 책 조회
+     * @param id 책 id
+     * @param fields 조회할 필드 목록, 없으면 전체
+     * @return 책 Dto
+     */
+    @Transactional(readOnly = true)
+    public BookDto get(String id, List<String> fields) {
+        var canonicalId = BookId.canonicalize(id);
+        if (null == canonicalId) {
+            return null;
+        }
+        if (null != fields && !fields.isEmpty()) {
+            return repository.findDto(canonicalId, fields);
+        }
+        return get(canonicalId);
+    }
 
-        // 결과
-        AddBookResult result = new AddBookResult();
-        result.setId(book.getId().getId());
-        return result;
+    /**
+     * 여러 책 조회
+     * @param ids 책 id 목록
+     * @param fields 조회할 필드 목록, 없으면 전체 (id는 항상 포함)
+     * @return 요청 순서의 책 Dto 목록과 찾지 못한 id 목록
+     */
+    @Transactional(readOnly = true)
+    public BatchGetResult<BookDto, String> getAll(List<String> ids, List<String> fields) {
+        var requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        var valid = requested.stream()
+                .map(BookId::canonicalize)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        var found = new HashMap<String, BookDto>();
+        if (!valid.isEmpty()) {
+            for (var book : repository.findAllDto(valid, fields)) {
+                found.put(book.getId(), book);
+            }
+        }
+
+        var items = new ArrayList<BookDto>(found.size());
+        var missing = new ArrayList<String>();
+        for (var id : requested) {
+            // DB에서 읽은 Id는 표준 형식(소문자 36자) UUID 문자열
+            var canonicalId = BookId.canonicalize(id);
+            var book = null == canonicalId ? null : found.get(canonicalId);
+            if (null == book) {
+                missing.add(id);
+            } else {
+                items.add(book);
+            }
+        }
+        return BatchGetResult.of(items, missing);
     }
 
     /**
@@ -64,8 +272,12 @@ public class BookService {
      */
     @Transactional(readOnly = true)
     public BookDto get(String id) {
-        BookDto result;
-        var bookOptional = repository.findById(BookId.of(id));
+        // UUID 형식이 아닌 Id는 DB에 있을 수 없음
+        var canonicalId = BookId.canonicalize(id);
+        if (null == canonicalId) {
+            return null;
+        }
+        var bookOptional = repository.findById(BookId.of(canonicalId));
         if (bookOptional.isEmpty()) {
             return null;
         }
@@ -76,52 +288,232 @@ public class BookService {
 
     /**
      * 책 목록 조회
-     * @return 책 Dto 목록
+     * 캐시 적중시 Transaction(DB 커넥션) 없이 반환하기 위해 Transaction을 사용하지 않음
+     * expand=category면 분류 이름을 메모리 분류 목록에서 채움
+     * @return 책 Dto 페이지
+     */
+    public CursorPage<BookDto> list(BooksQuery query) {
+        if (!expandsCategory(query)) {
+            return listCache.get(query, () -> find(query));
+        }
+
+        // 분류 이름은 메모리 분류 목록에서 채움 (행마다 조회하지 않음)
+        var fields = query.getFields();
+        boolean excludeCategoryId = null != fields && fields.stream().anyMatch(StringUtils::hasText)
+                && fields.stream().noneMatch(field -> null != field && "categoryId".equals(field.trim()));
+        // 확장 없는 목록과 같은 캐시 항목을 사용하도록 expand를 뺀 쿼리로 조회
+        var findQuery = DtoAssembler.to(query, BooksQuery.class);
+        findQuery.setExpand(null);
+        if (excludeCategoryId) {
+            var withCategoryId = new ArrayList<>(fields);
+            withCategoryId.add("categoryId");
+            findQuery.setFields(withCategoryId);
+        }
+        // 캐시는 복사본을 반환하므로 그대로 채움
+        var page = listCache.get(findQuery, () -> find(findQuery));
+        var categoryMap = categoryService.categoryMap();
+        for (var book : page.getItems()) {
+            var category = categoryMap.get(book.getCategoryId());
+            if (null != category) {
+                book.setCategoryName(category.getName());
+            }
+            if (excludeCategoryId) {
+                book.setCategoryId(null);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * expand에 category가 있는지 확인
+     * @param query 쿼리
+     * @return category 포함 여부
+     */
+    private boolean expandsCategory(BooksQuery query) {
+        if (null == query.getExpand()) {
+            return false;
+        }
+        boolean category = false;
+        for (var expand : query.getExpand()) {
+            if (!StringUtils.hasText(expand)) {
+                continue;
+            }
+            if (!ExpandCategory.equals(expand.trim())) {
+                throw new BadRequestException("unknown expand '" + expand + "'");
+            }
+            category = true;
+        }
+        return category;
+    }
+
+    /**
+     * 책 목록 DB 조회
+     * keyword는 색인으로 검색하며, 색인 결과가 너무 많으면 DB에서 LIKE로 검색
+     * @return 책 Dto 페이지
+     */
+    private CursorPage<BookDto> find(BooksQuery query) {
+        List<String> ids = null;
+        if (StringUtils.hasText(query.getKeyword())) {
+            ids = searchIndex.search(query);
+            if (null != ids && ids.isEmpty()) {
+                return CursorPage.of(List.of(), null);
+            }
+        }
+        return repository.findAll(query, ids);
+    }
+
+    /**
+     * 책 목록 Facet 조회
+     * keyword가 없으면 메모리 Counter, 있으면 DB GROUP BY로 계산
+     * @param query 쿼리 (cursor, size는 무시)
+     * @return 책유형, 분류 Id별 책 수
      */
     @Transactional(readOnly = true)
-    public List<BookDto> list(BooksQuery query) {
-        return DtoAssembler.to(repository.findAll(query), BookDto.class);
+    public BookFacets facets(BooksQuery query) {
+        if (!StringUtils.hasText(query.getKeyword())) {
+            return facetCounter.count(query);
+        }
+
+        Map<BookType, Long> bookTypes = new TreeMap<>();
+        Map<Integer, Long> categories = new TreeMap<>();
+        var ids = searchIndex.search(query);
+        if (null == ids || !ids.isEmpty()) {
+            for (var facetCount : repository.countFacets(query, ids)) {
+                if (null != facetCount.getBookType()) {
+                    bookTypes.merge(facetCount.getBookType(), facetCount.getCount(), Long::sum);
+                }
+                if (null != facetCount.getCategoryId()) {
+                    categories.merge(facetCount.getCategoryId(), facetCount.getCount(), Long::sum);
+                }
+            }
+        }
+        var result = new BookFacets();
+        result.setBookTypes(bookTypes);
+        result.setCategories(categories);
+        return result;
+    }
+
+    /**
+     * 책 목록 내보내기
+     * 조회되는 행을 하나씩 consumer에 전달하며, consumer가 반환될 때까지 다음 행을 읽지 않는다.
+     * @param query 쿼리 (cursor, size는 무시)
+     * @param consumer 책 Dto 처리자
+     */
+    @Transactional(readOnly = true)
+    public void export(BooksQuery query, Consumer<BookDto> consumer) {
+        try (var iterator = repository.iterate(query, exportFetchSize)) {
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+            }
+        }
     }
 
     /**
      * 책 수정
+     * 색인의 이전 값을 조건으로 UPDATE 한번, 수정된 행이 없을 때만 이전 값을 행 잠금으로 읽어 다시 UPDATE
+     * 분류 Id도 Command 값으로 변경 (분류 이동), 분류 존재 확인은 트랜잭션(DB 커넥션) 밖에서 먼저 함
      * @param command 책 수정 Command
      */
-    @Transactional
     public void update(UpdateBookCommand command) {
-        // 존재 확인
-        var bookId = BookId.of(command.getId());
-        var bookOptional = repository.findById(bookId);
-        if (bookOptional.isEmpty()) {
+        // 색인 Key, 캐시 무효화와 같도록 표준 형식 Id 사용
+        var id = BookId.canonicalize(command.getId());
+        if (null == id) {
             throw new RuntimeException("book is not exist.");
         }
+        // 분류 존재 확인 (책이 없는 경우의 오류가 우선하므로 결과는 트랜잭션에서 사용)
+        boolean categoryExists = categoryService.exist(command.getCategoryId());
 
-        // 분류 존재 확인
-        if (!categoryService.exist(command.getCategoryId())) {
-            throw new RuntimeException("category is not exist.");
-        }
+        transactionTemplate.executeWithoutResult(status -> {
+            var book = Book.builder()
+                    .id(BookId.of(id))
+                    .bookType(command.getBookType())
+                    .title(command.getTitle())
+                    .author(command.getAuthor())
+                    .categoryId(CategoryId.of(command.getCategoryId()))
+                    .published(command.getPublished())
+                    .isbn13(command.getIsbn13())
+                    .build();
+
+            // 분류가 없으면 실패 (책이 없는 경우의 오류가 우선)
+            if (!categoryExists) {
+                if (null == lockDocument(id)) {
+                    throw new RuntimeException("book is not exist.");
+                }
+                throw new RuntimeException("category is not exist.");
+            }
 
-        // 수정
-        var book = bookOptional.get();
-        book.setBookType(command.getBookType());
-        book.setTitle(command.getTitle());
-        book.setAuthor(command.getAuthor());
-        book.setIsbn13(command.getIsbn13());
-        book.setPublished(command.getPublished());
+            // 수정
+            var before = searchIndex.get(id);
+            if (null == before || 0 == repository.modify(book, before)) {
+                before = lockDocument(id);
+                if (null == before) {
+                    throw new RuntimeException("book is not exist.");
+                }
+                repository.modify(book);
+            }
+
+            if (!Objects.equals(before.getCategoryId(), command.getCategoryId())) {
+                var deltas = new HashMap<Integer, Long>();
+                deltas.put(command.getCategoryId(), 1L);
+                if (null != before.getCategoryId()) {
+                    deltas.put(before.getCategoryId(), -1L);
+                }
+                categoryService.addBookCounts(deltas);
+            }
+
+            var previous = before;
+            var document = BookDocument.from(book);
+            TransactionUtils.afterCommit(() -> {
+                searchIndex.put(document);
+                facetCounter.move(previous.getBookType(), previous.getCategoryId(),
+                        document.getBookType(), document.getCategoryId());
+                listCache.invalidate(previous, document);
+            });
+        });
     }
 
     /**
      * 책 삭제
-     * @param id 책 id
+     * 색인의 이전 값을 조건으로 DELETE 한번, 삭제된 행이 없을 때만 이전 값을 행 잠금으로 읽어 다시 DELETE
+     * @param bookId 책 id
      */
     @Transactional
-    public void delete(String id) {
-        BookId bookId = BookId.of(id);
-        var bookOptional = repository.findById(BookId.of(id));
-        if (bookOptional.isEmpty()) {
+    public void delete(String bookId) {
+        // 색인 Key, 캐시 무효화와 같도록 표준 형식 Id 사용
+        var id = BookId.canonicalize(bookId);
+        if (null == id) {
             throw new RuntimeException("book is not exist.");
         }
+        var before = searchIndex.get(id);
+        if (null == before || 0 == repository.remove(before)) {
+            before = lockDocument(id);
+            if (null == before) {
+                throw new RuntimeException("book is not exist.");
+            }
+            repository.remove(BookId.of(id));
+        }
+        if (null != before.getCategoryId()) {
+            categoryService.addBookCounts(Map.of(before.getCategoryId(), -1L));
+        }
 
-        repository.deleteById(bookId);
+        var previous = before;
+        TransactionUtils.afterCommit(() -> {
+            searchIndex.remove(id);
+            facetCounter.decrement(previous.getBookType(), previous.getCategoryId());
+            listCache.invalidate(previous);
+        });
+    }
+
+    /**
+     * 수정, 삭제 전 책 문서 (Facet, 캐시 갱신용)
+     * 색인에 없거나 색인 값이 DB와 달라 조건부 UPDATE, DELETE가 실패한 경우에만 사용
+     * (아직 afterCommit이 반영되지 않은 다른 수정, 시작 직후 색인 생성 전)
+     * DB에서 행 잠금으로 읽으므로 트랜잭션이 끝날 때까지 다른 수정은 대기
+     * @param id 책 id
+     * @return 책 문서, 없으면 null
+     */
+    private BookDocument lockDocument(String id) {
+        var book = repository.findDtoForUpdate(id, DocumentFields);
+        return null == book ? null : BookDocument.from(book);
     }
 }
@@ -1,26 +1,165 @@
 package com.moss.javatest.book.service;
 
 import com.moss.javatest.book.domain.model.Category;
+import com.moss.javatest.book.domain.model.CategoryBookCount;
+import com.moss.javatest.book.domain.repository.CategoryBookCountRepository;
 import com.moss.javatest.book.domain.repository.CategoryRepository;
 import com.moss.javatest.book.dto.category.AddCategoryCommand;
 import com.moss.javatest.book.dto.category.AddCategoryResult;
 import com.moss.javatest.book.dto.category.CategoryDto;
 import com.moss.javatest.book.dto.category.UpdateCategoryCommand;
+import com.moss.javatest.book.infrastructure.cache.CategorySnapshot;
+import com.moss.javatest.shared.dto.BatchGetResult;
 import com.moss.javatest.shared.dto.DtoAssembler;
+import com.moss.javatest.shared.infrastructure.SharedObjectMapper;
+import com.moss.javatest.shared.infrastructure.batch.BatchLoader;
+import com.moss.javatest.shared.infrastructure.cache.IntSet;
+import com.moss.javatest.shared.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 분류 서비스
  */
+@Slf4j
 @Service
 public class CategoryService {
     private final CategoryRepository repository;
+    private final CategoryBookCountRepository bookCountRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
-    public CategoryService(CategoryRepository repository) {
+    // 분류 Id 집합 (메모리), 시작시 로딩 전에는 null
+    // 읽기는 lock 없이, 변경은 새 집합으로 교체 (synchronized)
+    private volatile IntSet categoryIds = null;
+    // 분류 Id 집합 변경 횟수 (주기적 다시 읽기 중 변경이 있으면 교체하지 않기 위해 사용)
+    private long categoryIdsVersion = 0;
+
+    // 분류 목록 Snapshot, 시작시 로딩 전에는 null
+    private volatile CategorySnapshot snapshot = null;
+    private final Object snapshotLock = new Object();
+    // 분류 목록 응답 형식 -> 변환 ObjectMapper (첫 번째가 기본 형식)
+    private final Map<MediaType, SharedObjectMapper> objectMappers = new LinkedHashMap<>();
+
+    // 메모리 Id 집합에 없는 존재 확인을 모아서 한번에 조회
+    private final BatchLoader<Integer, Boolean> existLoader;
+
+    private final Counter existHits;
+    private final Counter existFallbacks;
+
+    public CategoryService(CategoryRepository repository, CategoryBookCountRepository bookCountRepository,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           @Value("${category.exist-batch.window:1ms}") Duration existBatchWindow,
+                           @Value("${category.exist-batch.max-size:100}") int existBatchMaxSize) {
         this.repository = repository;
+        this.bookCountRepository = bookCountRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        // afterCommit에서 호출되면 끝난 트랜잭션(커넥션)에 참여하지 않고 새 트랜잭션으로 읽음
+        this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMappers.put(MediaType.APPLICATION_JSON, new SharedObjectMapper());
+        this.objectMappers.put(MediaType.APPLICATION_CBOR, SharedObjectMapper.cbor());
+        this.objectMappers.put(MediaType.valueOf(SharedObjectMapper.APPLICATION_SMILE_VALUE), SharedObjectMapper.smile());
+
+        var existBatchSizes = DistributionSummary.builder("category.exist.batch.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.existLoader = new BatchLoader<>("category-exist-loader",
+                ids -> repository.findIdsByIdIn(ids).stream()
+                        .collect(Collectors.toMap(Function.identity(), id -> true)),
+                false, existBatchWindow, existBatchMaxSize, existBatchSizes::record);
+
+        this.existHits = Counter.builder("category.exist.cache.hits").register(meterRegistry);
+        this.existFallbacks = Counter.builder("category.exist.cache.fallbacks").register(meterRegistry);
+        Gauge.builder("category.exist.cache.size", this, service -> {
+            var ids = service.categoryIds;
+            return null == ids ? 0 : ids.size();
+        }).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() {
+        existLoader.close();
+    }
+
+    /**
+     * 분류 Id 집합 다시 읽기
+     * 시작시, 그리고 놓친 변경(다른 인스턴스 등)에 대비하여 주기적으로 실행
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${category.id-cache.refresh-interval:600000}")
+    public void refreshCategoryIds() {
+        long version;
+        synchronized (this) {
+            version = categoryIdsVersion;
+        }
+        var loaded = IntSet.of(readOnlyTransactionTemplate.execute(status -> repository.findAllIds()));
+        synchronized (this) {
+            if (version != categoryIdsVersion) {
+                // 읽는 중 추가, 삭제가 commit 됨 (다음 주기에 다시 읽음)
+                return;
+            }
+            categoryIds = loaded;
+        }
+        log.debug("category ids refreshed. size: {}", loaded.size());
+    }
+
+    /**
+     * 분류 목록 Snapshot 다시 만들기
+     * 시작시, 그리고 추가, 수정, 삭제가 commit 된 후 실행 (책 추가, 삭제로는 다시 만들지 않음)
+     * (동시에 실행되면 나중에 실행된 쪽이 최신 commit을 포함한 결과로 교체)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSnapshot() {
+        synchronized (snapshotLock) {
+            var categories = readOnlyTransactionTemplate.execute(status ->
+                    DtoAssembler.to(repository.findAll(), CategoryDto.class));
+            long version = null == snapshot ? 1 : snapshot.getVersion() + 1;
+            snapshot = CategorySnapshot.of(version, categories, objectMappers);
+            log.debug("category snapshot rebuilt. version: {}, size: {}", version, categories.size());
+        }
+    }
+
+    private synchronized void addCategoryId(int id) {
+        if (null != categoryIds) {
+            categoryIds = categoryIds.with(id);
+        }
+        categoryIdsVersion++;
+    }
+
+    private synchronized void removeCategoryId(int id) {
+        if (null != categoryIds) {
+            categoryIds = categoryIds.without(id);
+        }
+        categoryIdsVersion++;
     }
 
     /**
@@ -32,8 +171,14 @@ public class CategoryService {
         // 생성
         var category = Category.builder().name(command.getName()).build();
 
-        // 저장
+        // 저장 (책 수 행 포함)
         repository.save(category);
+        var id = category.getId();
+        bookCountRepository.saveAll(CategoryBookCount.stripesOf(id));
+        TransactionUtils.afterCommit(() -> {
+            addCategoryId(id);
+            rebuildSnapshot();
+        });
 
         AddCategoryResult reuslt = new AddCategoryResult();
         reuslt.setId(category.getId());
@@ -47,21 +192,186 @@ public class CategoryService {
      */
     @Transactional(readOnly = true)
     public CategoryDto get(Integer id) {
-        return DtoAssembler.to(repository.findById(id).get(), CategoryDto.class);
+        var category = DtoAssembler.to(repository.findById(id).get(), CategoryDto.class);
+        category.setBookCount(bookCountRepository.sumByCategoryId(id));
+        return category;
     }
 
+    /**
+     * 분류별 책 수 조회
+     * 분류 목록 Snapshot에는 책 수를 넣지 않으므로 (책 추가, 삭제마다 다시 만들지 않도록) 따로 조회
+     * @return 분류 Id -> 책 수 (Id 순)
+     */
     @Transactional(readOnly = true)
+    public Map<Integer, Long> bookCounts() {
+        var bookCounts = new TreeMap<Integer, Long>();
+        for (var sum : bookCountRepository.sumAll()) {
+            bookCounts.put(sum.getCategoryId(), sum.getBookCount());
+        }
+        return bookCounts;
+    }
+
+    /**
+     * 분류별 책 수 증감
+     * 책 추가, 삭제, 분류 이동과 같은 트랜잭션에서 호출하며, 분류마다 임의의 행 하나만 UPDATE
+     * 여러 분류는 Id 순으로 UPDATE (여러 분류를 증감하는 트랜잭션 사이의 교착 방지)
+     * @param deltas 분류 Id -> 증감 값
+     * @throws RuntimeException 증가할 분류가 없는 경우 (분류 삭제가 먼저 commit 됨)
+     */
+    @Transactional
+    public void addBookCounts(Map<Integer, Long> deltas) {
+        for (var entry : new TreeMap<>(deltas).entrySet()) {
+            long delta = entry.getValue();
+            if (0 == delta) {
+                continue;
+            }
+            int stripe = ThreadLocalRandom.current().nextInt(CategoryBookCount.Stripes);
+            if (0 != bookCountRepository.add(entry.getKey(), stripe, delta)) {
+                continue;
+            }
+            // 책 수 행이 없음 (분류가 없거나, 책 수 행 도입 전에 추가된 분류)
+            var created = createBookCounts(entry.getKey());
+            if (null == created) {
+                if (delta > 0) {
+                    throw new RuntimeException("category is not exist.");
+                }
+            } else if (!created) {
+                // 다른 트랜잭션이 먼저 만듦
+                bookCountRepository.add(entry.getKey(), stripe, delta);
+            }
+        }
+    }
+
+    /**
+     * 책 수 행이 없는 분류(책 수 행 도입 전에 추가된 분류)의 책 수 행 만들기
+     * 분류 행을 잠가서 같은 분류의 행을 동시에 만들지 않으며, 책 수는 책 테이블에서 분류당 한번만 셈
+     * 센 책 수에는 이 트랜잭션의 책 추가, 삭제, 분류 이동이 이미 포함됨
+     * @param categoryId 분류 Id
+     * @return 만들었으면 true, 다른 트랜잭션이 이미 만들었으면 false, 분류가 없으면 null
+     */
+    private Boolean createBookCounts(Integer categoryId) {
+        if (repository.findByIdForUpdate(categoryId).isEmpty()) {
+            return null;
+        }
+        if (!bookCountRepository.findAllByCategoryIdForUpdate(categoryId).isEmpty()) {
+            return false;
+        }
+        long bookCount = bookCountRepository.countBooks(categoryId);
+        bookCountRepository.saveAll(CategoryBookCount.stripesOf(categoryId, bookCount));
+        log.info("category book counts created. categoryId: {}, bookCount: {}", categoryId, bookCount);
+        return true;
+    }
+
+    /**
+     * 존재 확인
+     * 메모리 Id 집합에 있으면 DB를 조회하지 않음, 없으면 DB 조회 (로딩 전, 다른 인스턴스에서 추가된 경우)
+     * DB 조회는 동시에 요청된 Id와 모아서 IN 쿼리 한번으로 처리 (commit 된 분류만 확인)
+     * DB 조회는 다른 Thread의 커넥션으로 하므로 트랜잭션 밖에서 호출 (커넥션을 잡은 채 기다리면 Pool이 고갈될 수 있음)
+     * @param id 분류 Id
+     * @return 존재 여부
+     */
     public boolean exist(Integer id) {
-        return repository.existsById(id);
+        if (null == id) {
+            throw new IllegalArgumentException("category id can not be null.");
+        }
+        var ids = categoryIds;
+        if (null != ids && ids.contains(id)) {
+            existHits.increment();
+            return true;
+        }
+        existFallbacks.increment();
+        try {
+            return existLoader.load(id).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
     }
 
     /**
-     * 목록 조회
-     * @return 분류 목록
+     * 존재하는 분류 Id 조회
+     * 메모리 Id 집합에 없는 Id만 DB 조회 (한번의 IN 쿼리)
+     * @param ids 분류 Id 목록
+     * @return ids 중 존재하는 분류 Id 집합
+     */
+    public Set<Integer> existIds(Collection<Integer> ids) {
+        var cached = categoryIds;
+        var result = new HashSet<Integer>();
+        var missing = new ArrayList<Integer>();
+        for (var id : ids) {
+            if (null != cached && cached.contains(id)) {
+                result.add(id);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            existFallbacks.increment();
+            result.addAll(repository.findIdsByIdIn(missing));
+        } else if (!result.isEmpty()) {
+            existHits.increment();
+        }
+        return result;
+    }
+
+    /**
+     * 목록 조회 (책 수 미포함, bookCounts로 조회)
+     * @return 분류 목록 (변경 불가)
      */
-    @Transactional(readOnly = true)
     public List<CategoryDto> list() {
-        return DtoAssembler.to(repository.findAll(), CategoryDto.class);
+        return snapshot().getCategories();
+    }
+
+    /**
+     * 여러 분류 조회
+     * 분류 목록 Snapshot에서 찾으므로 DB를 조회하지 않음
+     * @param ids 분류 Id 목록
+     * @return 요청 순서의 분류 목록과 찾지 못한 Id 목록
+     */
+    public BatchGetResult<CategoryDto, Integer> getAll(List<Integer> ids) {
+        var requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        var categoryMap = snapshot().getCategoryMap();
+        var items = new ArrayList<CategoryDto>(requested.size());
+        var missing = new ArrayList<Integer>();
+        for (var id : requested) {
+            var category = categoryMap.get(id);
+            if (null == category) {
+                missing.add(id);
+            } else {
+                items.add(category);
+            }
+        }
+        return BatchGetResult.of(items, missing);
+    }
+
+    /**
+     * 분류 목록 Snapshot (책 수 미포함)
+     * 분류가 변경되지 않았으면 DB 조회, JSON 변환 없이 같은 Snapshot을 반환
+     * @return 분류 목록 Snapshot
+     */
+    public CategorySnapshot snapshot() {
+        var current = snapshot;
+        if (null == current) {
+            // 시작 완료(ApplicationReadyEvent) 전 요청
+            synchronized (snapshotLock) {
+                if (null == snapshot) {
+                    rebuildSnapshot();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 분류 Id -> 분류 (이름 조회용)
+     * @return 분류 Id -> 분류
+     */
+    public Map<Integer, CategoryDto> categoryMap() {
+        return snapshot().getCategoryMap();
     }
 
     /**
@@ -79,20 +389,35 @@ public class CategoryService {
         // 수정
         var categoty = categoryOptional.get();
         categoty.setName(command.getName());
+        TransactionUtils.afterCommit(this::rebuildSnapshot);
     }
 
     @Transactional
     public void delete(Integer id) {
-        // 존재확인
-        var categoryOptional = repository.findById(id);
+        // 존재확인 (분류 행 잠금, 책 수 행이 없는 분류의 행 만들기와 겹치지 않도록)
+        var categoryOptional = repository.findByIdForUpdate(id);
         if (categoryOptional.isEmpty()) {
             throw new RuntimeException("category is not exist.");
         }
-        
-        // TODO: 사용여부 확인
+
+        // 사용여부 확인 (책 테이블을 조회하지 않고 책 수 행을 잠금)
+        // 잠금 후에는 이 분류의 책 추가, 분류 이동이 commit 될 수 없고, 삭제 후에는 책 수 행이 없어 실패
+        var bookCounts = bookCountRepository.findAllByCategoryIdForUpdate(id);
+        var bookCount = bookCounts.isEmpty()
+                // 책 수 행 도입 전에 추가된 분류는 책 테이블에서 셈
+                ? bookCountRepository.countBooks(id)
+                : bookCounts.stream().mapToLong(CategoryBookCount::getBookCount).sum();
+        if (bookCount > 0) {
+            throw new RuntimeException("category is in use.");
+        }
 
         // 삭제
+        bookCountRepository.deleteByCategoryId(id);
         repository.deleteById(id);
+        TransactionUtils.afterCommit(() -> {
+            removeCategoryId(id);
+            rebuildSnapshot();
+        });
     }
     
 }
@@ -0,0 +1,34 @@
+package com.moss.javatest.book.userinterface;
+
+import com.moss.javatest.book.dto.book.BookDto;
+import com.moss.javatest.book.dto.book.BooksBatchGetQuery;
+import com.moss.javatest.book.service.BookService;
+import com.moss.javatest.shared.dto.BatchGetResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 책 일괄 조회 Controller
+ * v1.0/books:batchGet 형식(Custom Method)은 Class의 @RequestMapping과 합치면 "/"가 추가되므로 별도 Controller로 분리
+ */
+@RestController
+public class BookBatchGetController {
+    private final BookService service;
+
+    public BookBatchGetController(BookService service) {
+        this.service = service;
+    }
+
+    /**
+     * 여러 책 조회
+     * @param query 책 Id 목록, 조회할 필드 목록
+     * @return 요청 순서의 책 목록과 찾지 못한 Id 목록
+     */
+    @PostMapping("v1.0/books:batchGet")
+    public BatchGetResult<BookDto, String> batchGet(@RequestBody BooksBatchGetQuery query) {
+        return service.getAll(null == query.getIds() ? List.of() : query.getIds(), query.getFields());
+    }
+}
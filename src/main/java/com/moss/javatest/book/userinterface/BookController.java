@@ -1,9 +1,24 @@
 package com.moss.javatest.book.userinterface;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.moss.javatest.book.dto.book.*;
 import com.moss.javatest.book.service.BookService;
+import com.moss.javatest.shared.dto.CursorPage;
+import com.moss.javatest.shared.exception.InvalidBodyException;
+import com.moss.javatest.shared.infrastructure.SharedObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -12,6 +27,23 @@ import java.util.List;
 @RequestMapping("v1.0/books")
 @RestController
 public class BookController {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    // 한 줄에 하나의 JSON (NDJSON), 행마다 flush 하지 않고 응답 버퍼가 찰 때 전송
+    private static final ObjectWriter NdjsonWriter = new SharedObjectMapper()
+            .writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator("\n");
+
+    // JSON 배열 또는 NDJSON을 한 행씩 읽음
+    private static final ObjectReader AddBookCommandReader = new SharedObjectMapper()
+            .readerFor(AddBookCommand.class);
+    // CBOR, Smile 배열 또는 연속된 값을 한 행씩 읽음
+    private static final ObjectReader AddBookCommandCborReader = SharedObjectMapper.cbor()
+            .readerFor(AddBookCommand.class);
+    private static final ObjectReader AddBookCommandSmileReader = SharedObjectMapper.smile()
+            .readerFor(AddBookCommand.class);
+
     private final BookService service;
 
     public BookController(BookService service) {
@@ -27,25 +59,108 @@ public class BookController {
         return service.add(command);
     }
 
+    /**
+     * 일괄 추가
+     * 본문은 추가 Command의 JSON 배열, NDJSON 또는 CBOR, Smile 배열, 전체를 메모리에 올리지 않고 읽는 대로 처리
+     * @param contentType 본문 형식
+     * @param body 요청 본문
+     * @return 행별 결과 (요청 순서)
+     */
+    @PostMapping(value = "batch", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, SharedObjectMapper.APPLICATION_SMILE_VALUE})
+    public List<AddBookBatchResult> addAll(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                           InputStream body) throws IOException {
+        var reader = AddBookCommandReader;
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)) {
+            reader = AddBookCommandCborReader;
+        } else if (MediaType.valueOf(SharedObjectMapper.APPLICATION_SMILE_VALUE).isCompatibleWith(contentType)) {
+            reader = AddBookCommandSmileReader;
+        }
+        try (MappingIterator<AddBookCommand> commands = reader.readValues(body)) {
+            return service.addAll(values(commands));
+        }
+    }
+
+    /**
+     * 본문 형식 오류는 InvalidBodyException, 그 외 읽기 오류는 UncheckedIOException으로 전달하는 Iterator
+     * (MappingIterator의 hasNext, next는 모든 오류를 RuntimeException으로 감쌈)
+     */
+    private static <T> Iterator<T> values(MappingIterator<T> iterator) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return iterator.hasNextValue();
+                } catch (JsonProcessingException e) {
+                    throw new InvalidBodyException("invalid body. " + e.getOriginalMessage(), e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public T next() {
+                try {
+                    return iterator.nextValue();
+                } catch (JsonProcessingException e) {
+                    throw new InvalidBodyException("invalid body. " + e.getOriginalMessage(), e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
     /**
      * 조회
      * @param id 책 Id
+     * @param fields 조회할 필드 목록 (예: fields=id,title), 없으면 전체
      * @return 책
      */
     @GetMapping("{id}")
-    public BookDto get(@PathVariable String id) {
-        return service.get(id);
+    public BookDto get(@PathVariable String id, @RequestParam(required = false) List<String> fields) {
+        return service.get(id, fields);
     }
 
     /**
      * 목록 조회
-     * @return 책 목록
+     * 다음 페이지는 응답의 next를 cursor로 전달하여 조회
+     * @return 책 페이지
      */
     @GetMapping
-    public List<BookDto> list(@ModelAttribute BooksQuery query) {
+    public CursorPage<BookDto> list(@ModelAttribute BooksQuery query) {
         return service.list(query);
     }
 
+    /**
+     * 목록 Facet 조회
+     * @return 책유형, 분류 Id별 책 수
+     */
+    @GetMapping("facets")
+    public BookFacets facets(@ModelAttribute BooksQuery query) {
+        return service.facets(query);
+    }
+
+    /**
+     * 목록 내보내기 (NDJSON)
+     * DB에서 읽는 즉시 응답으로 쓰며, 클라이언트가 느리면 쓰기가 블록되어 DB 읽기도 멈춘다.
+     * @return 책 목록 NDJSON 스트림
+     */
+    @GetMapping(value = "export", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody export(@ModelAttribute BooksQuery query) {
+        return outputStream -> {
+            try (var writer = NdjsonWriter.writeValues(outputStream)) {
+                service.export(query, book -> {
+                    try {
+                        writer.write(book);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+
     /**
      * 수정
      * @param id 책 Id
@@ -4,10 +4,21 @@ import com.moss.javatest.book.dto.category.AddCategoryCommand;
 import com.moss.javatest.book.dto.category.AddCategoryResult;
 import com.moss.javatest.book.dto.category.CategoryDto;
 import com.moss.javatest.book.dto.category.UpdateCategoryCommand;
+import com.moss.javatest.book.infrastructure.cache.CategorySnapshot;
 import com.moss.javatest.book.service.CategoryService;
+import com.moss.javatest.shared.dto.BatchGetResult;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 분류 Controller
@@ -42,11 +53,64 @@ public class CategoryController {
 
     /**
      * 목록 조회
-     * @return 분류 목록
+     * Accept에 맞게 미리 변환한 본문(JSON, CBOR, Smile)을 그대로 응답하며, If-None-Match가 ETag와 같으면 304
+     * 304 응답에도 Vary: Accept가 붙도록 checkNotModified 전에 헤더를 쓴다
+     * @return 분류 목록 본문
      */
     @GetMapping
-    public List<CategoryDto> list() {
-        return service.list();
+    public ResponseEntity<byte[]> list(WebRequest request, HttpServletResponse response) throws HttpMediaTypeNotAcceptableException {
+        var snapshot = service.snapshot();
+        var body = snapshot.body(acceptOf(request));
+        if (null == body) {
+            throw new HttpMediaTypeNotAcceptableException(snapshot.getBodies().stream()
+                    .map(CategorySnapshot.Body::getMediaType)
+                    .collect(Collectors.toList()));
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (request.checkNotModified(body.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(body.getMediaType())
+                .body(body.getContent());
+    }
+
+    /**
+     * 여러 줄로 온 Accept 헤더를 모두 합쳐 파싱
+     * @param request 요청
+     * @return Accept 형식 목록 (없으면 빈 목록)
+     * @throws HttpMediaTypeNotAcceptableException 형식을 파싱할 수 없는 경우
+     */
+    private static List<MediaType> acceptOf(WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        var values = request.getHeaderValues(HttpHeaders.ACCEPT);
+        if (null == values) {
+            return List.of();
+        }
+        try {
+            return MediaType.parseMediaTypes(List.of(values));
+        } catch (InvalidMediaTypeException e) {
+            throw new HttpMediaTypeNotAcceptableException(e.getMessage());
+        }
+    }
+
+    /**
+     * 분류별 책 수 조회
+     * 분류 목록 본문에는 책 수가 없으므로 (책 추가, 삭제마다 본문을 다시 만들지 않도록) 따로 조회
+     * @return 분류 Id -> 책 수
+     */
+    @GetMapping("book-counts")
+    public Map<Integer, Long> bookCounts() {
+        return service.bookCounts();
+    }
+
+    /**
+     * 여러 분류 조회
+     * @param ids 분류 Id 목록 (예: ids=1,2,3)
+     * @return 요청 순서의 분류 목록과 찾지 못한 Id 목록
+     */
+    @GetMapping(params = "ids")
+    public BatchGetResult<CategoryDto, Integer> getAll(@RequestParam List<Integer> ids) {
+        return service.getAll(ids);
     }
 
     /**
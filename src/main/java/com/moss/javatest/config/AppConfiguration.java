@@ -4,8 +4,11 @@ import com.moss.javatest.shared.infrastructure.SharedObjectMapper;
 import com.moss.javatest.shared.infrastructure.formatter.OffsetDateTimeFormatter;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
@@ -22,6 +25,11 @@ public class AppConfiguration implements WebMvcConfigurer {
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
         converters.clear();
+        // 미리 변환한 JSON(byte[])은 그대로 응답
+        converters.add(new ByteArrayHttpMessageConverter());
+        // Accept, Content-Type에 따라 선택, 지정하지 않으면 먼저 등록한 JSON
         converters.add(new MappingJackson2HttpMessageConverter(new SharedObjectMapper()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(SharedObjectMapper.cbor()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(SharedObjectMapper.smile()));
     }
 }
@@ -0,0 +1,54 @@
+package com.moss.javatest.config;
+
+import com.moss.javatest.shared.util.CoarseClock;
+import com.moss.javatest.shared.util.TimeUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * TimeUtils 현재 시간 Clock 설정
+ */
+@Configuration
+public class ClockConfiguration {
+    // TimeUtils에 적용한 Clock
+    private Clock clock;
+
+    /**
+     * time.clock.mode에 맞는 Clock을 만들어 TimeUtils에 적용
+     * system: 매번 시스템 시계 조회, coarse: time.clock.tick 마다 갱신한 값 사용
+     */
+    @Bean(destroyMethod = "")
+    public Clock clock(@Value("${time.clock.mode:system}") String mode,
+                       @Value("${time.clock.tick:1ms}") Duration tick) {
+        switch (mode) {
+            case "system":
+                clock = TimeUtils.systemClock();
+                break;
+            case "coarse":
+                clock = new CoarseClock("coarse-clock", ZoneId.systemDefault(), tick);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown clock mode '" + mode + "'");
+        }
+        TimeUtils.useClock(clock);
+        return clock;
+    }
+
+    /**
+     * 종료시 시스템 Clock으로 복구 후 갱신 스레드 정리
+     * 테스트 등에서 교체한 Clock이 다음 Context로 남지 않도록 교체 여부와 관계없이 복구
+     */
+    @PreDestroy
+    public void close() {
+        TimeUtils.useSystemClock();
+        if (clock instanceof CoarseClock) {
+            ((CoarseClock) clock).close();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.moss.javatest.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 주기 작업(@Scheduled) 설정
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
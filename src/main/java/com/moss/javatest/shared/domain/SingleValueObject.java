@@ -0,0 +1,14 @@
+package com.moss.javatest.shared.domain;
+
+/**
+ * 값 하나를 감싸는 값 객체 (예: BookId, CategoryId)
+ * CompiledMapper는 이 interface를 구현한 값 객체만 감싼 값으로 풀어서 Mapping (BookId -> String)
+ * @param <T> 감싼 값 Type
+ */
+public interface SingleValueObject<T> {
+    /**
+     * 감싼 값
+     * @return 값
+     */
+    T value();
+}
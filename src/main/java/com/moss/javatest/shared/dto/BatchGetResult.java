@@ -0,0 +1,23 @@
+package com.moss.javatest.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 여러 Id 일괄 조회 결과
+ * @param <T> 항목 Type
+ * @param <K> Id Type
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(staticName = "of")
+public class BatchGetResult<T, K> {
+    // 항목 목록 (요청 순서, 중복 제거)
+    private List<T> items;
+
+    // 찾지 못한 Id 목록 (요청 순서, 중복 제거)
+    private List<K> missing;
+}
@@ -0,0 +1,384 @@
+package com.moss.javatest.shared.dto;
+
+import com.moss.javatest.shared.domain.SingleValueObject;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * (Source Class, Destination Class) 별로 속성 연결을 한번만 분석하고
+ * Getter, Setter MethodHandle 호출 목록으로 Mapping 하는 Mapper
+ *
+ * 속성 연결 규칙 (Destination Setter 기준, private 포함)
+ * - 같은 이름의 Source Getter(private 포함) 값을 그대로 설정 (숫자 Type은 변환)
+ * - SingleValueObject를 구현한 값 객체(예: BookId)는 감싼 값을 설정 (BookId -> String)
+ * - Destination Type에 static of(Source Type)이 있으면 변환 후 설정 (Integer -> CategoryId)
+ * - 그 외 Bean Type은 같은 규칙으로 Mapping 한 새 객체를 설정
+ * - 같은 이름의 Getter가 없으면 Source의 Bean 속성 경로를 이어 붙인 이름으로 연결 (category.name -> categoryName, modelmapper와 같음)
+ *
+ * modelmapper와 달리 Destination 쪽 경로로 풀어 설정하지 않음 (categoryName -> category.name 미지원)
+ * @param <S> Source Type
+ * @param <D> Destination Type
+ */
+public final class CompiledMapper<S, D> {
+    private static final Map<Key, CompiledMapper<?, ?>> Cache = new ConcurrentHashMap<>();
+
+    private static final MethodType GetterType = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SetterType = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final Method ValueMethod = ClassUtils.getMethod(SingleValueObject.class, "value");
+    // 이어 붙인 이름으로 찾는 Source 속성 경로의 최대 깊이 (category.name -> 2)
+    private static final int MaxPathDepth = 3;
+
+    private final Class<D> destinationClass;
+    // 기본 생성자, 없으면 null
+    private final MethodHandle constructor;
+    private final PropertyMapping[] mappings;
+
+    /**
+     * Mapper 조회, 없으면 생성
+     * @param sourceClass Source Class
+     * @param destinationClass Destination Class
+     * @return Mapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, D> CompiledMapper<S, D> of(Class<S> sourceClass, Class<D> destinationClass) {
+        var key = new Key(sourceClass, destinationClass);
+        return (CompiledMapper<S, D>) Cache.computeIfAbsent(key, k -> new CompiledMapper<>(sourceClass, destinationClass));
+    }
+
+    private CompiledMapper(Class<S> sourceClass, Class<D> destinationClass) {
+        this.destinationClass = destinationClass;
+        this.constructor = constructor(destinationClass);
+
+        var getters = properties(sourceClass, true);
+        var setters = properties(destinationClass, false);
+        var mappings = new ArrayList<PropertyMapping>();
+        setters.forEach((name, setter) -> {
+            var path = path(getters, name, MaxPathDepth);
+            if (null != path) {
+                var mapping = mapping(path, setter);
+                if (null != mapping) {
+                    mappings.add(mapping);
+                }
+            }
+        });
+        this.mappings = mappings.toArray(PropertyMapping[]::new);
+    }
+
+    /**
+     * Source를 새 Destination 객체로 Mapping
+     * @param source Source
+     * @return Destination
+     */
+    public D map(S source) {
+        if (null == constructor) {
+            throw new IllegalArgumentException("'" + destinationClass.getName() + "' has no default constructor.");
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            var destination = (D) (Object) constructor.invokeExact();
+            return map(source, destination);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("fail to create '" + destinationClass.getName() + "'", e);
+        }
+    }
+
+    /**
+     * Source를 Destination에 Mapping
+     * @param source Source
+     * @param destination Destination
+     * @return destination
+     */
+    public D map(S source, D destination) {
+        try {
+            for (var mapping : mappings) {
+                mapping.apply(source, destination);
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("fail to map '" + source.getClass().getName() + "'", e);
+        }
+        return destination;
+    }
+
+    /**
+     * 속성 이름에 연결할 Source Getter 경로
+     * 같은 이름의 Getter가 우선, 없으면 Bean 속성 이름 + 하위 속성 이름으로 찾음 (categoryName -> getCategory().getName())
+     * @param getters Source Getter 목록
+     * @param name Destination 속성 이름
+     * @param depth 최대 경로 깊이
+     * @return Getter 경로, 없으면 null
+     */
+    private static List<Method> path(Map<String, Method> getters, String name, int depth) {
+        var getter = getters.get(name);
+        if (null != getter) {
+            return List.of(getter);
+        }
+        if (depth <= 1) {
+            return null;
+        }
+        for (var entry : getters.entrySet()) {
+            var prefix = entry.getKey();
+            var type = entry.getValue().getReturnType();
+            if (name.length() <= prefix.length() || !name.startsWith(prefix)
+                    || !Character.isUpperCase(name.charAt(prefix.length()))
+                    || !isBean(type) || SingleValueObject.class.isAssignableFrom(type)) {
+                continue;
+            }
+            var rest = path(properties(type, true), StringUtils.uncapitalize(name.substring(prefix.length())), depth - 1);
+            if (null != rest) {
+                var result = new ArrayList<Method>(rest.size() + 1);
+                result.add(entry.getValue());
+                result.addAll(rest);
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Getter 경로, Setter 연결 방법 결정
+     * @return 연결 할 수 없으면 null
+     */
+    private static PropertyMapping mapping(List<Method> path, Method setter) {
+        var sourceType = path.get(path.size() - 1).getReturnType();
+        var destinationType = setter.getParameterTypes()[0];
+        var getters = new ArrayList<MethodHandle>();
+        for (var getter : path) {
+            getters.add(handle(getter, GetterType));
+        }
+        var primitive = destinationType.isPrimitive();
+        var setterHandle = handle(setter, SetterType);
+
+        // 같은 Type
+        if (ClassUtils.isAssignable(destinationType, sourceType)) {
+            return new PropertyMapping(getters, setterHandle, null, primitive);
+        }
+
+        // 숫자 변환
+        var sourceWrapper = ClassUtils.resolvePrimitiveIfNecessary(sourceType);
+        var destinationWrapper = ClassUtils.resolvePrimitiveIfNecessary(destinationType);
+        if (Number.class.isAssignableFrom(sourceWrapper) && Number.class.isAssignableFrom(destinationWrapper)) {
+            @SuppressWarnings("unchecked")
+            var target = (Class<? extends Number>) destinationWrapper;
+            return new PropertyMapping(getters, setterHandle,
+                    value -> NumberUtils.convertNumberToTargetClass((Number) value, target), primitive);
+        }
+
+        // 값 객체 -> 값
+        var valueType = valueType(sourceType);
+        if (null != valueType && ClassUtils.isAssignable(destinationType, valueType)) {
+            getters.add(handle(ValueMethod, GetterType));
+            return new PropertyMapping(getters, setterHandle, null, primitive);
+        }
+
+        // 값 -> 값 객체
+        var factory = factory(destinationType, sourceType);
+        if (null != factory) {
+            var factoryHandle = handle(factory, MethodType.methodType(Object.class, Object.class));
+            return new PropertyMapping(getters, setterHandle, value -> invoke(factoryHandle, value), primitive);
+        }
+
+        // Bean -> Bean
+        if (isBean(sourceType) && isBean(destinationType)) {
+            return new PropertyMapping(getters, setterHandle, value -> mapNested(value, destinationType), primitive);
+        }
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object mapNested(Object value, Class<?> destinationType) {
+        return CompiledMapper.of((Class) value.getClass(), destinationType).map(value);
+    }
+
+    private static Object invoke(MethodHandle handle, Object value) {
+        try {
+            return (Object) handle.invokeExact(value);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Getter 또는 Setter 목록 (private, 상위 Class 포함), 하위 Class의 선언이 우선
+     * @param type Class
+     * @param getter true면 Getter, false면 Setter
+     * @return 속성 이름 -> Method
+     */
+    private static Map<String, Method> properties(Class<?> type, boolean getter) {
+        var result = new LinkedHashMap<String, Method>();
+        for (var current = type; null != current && Object.class != current; current = current.getSuperclass()) {
+            for (var method : current.getDeclaredMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.isSynthetic()) {
+                    continue;
+                }
+                var name = getter ? getterName(method) : setterName(method);
+                if (null != name) {
+                    result.putIfAbsent(name, method);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String getterName(Method method) {
+        if (method.getParameterCount() != 0 || void.class == method.getReturnType()) {
+            return null;
+        }
+        var name = method.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return StringUtils.uncapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && boolean.class == method.getReturnType()) {
+            return StringUtils.uncapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    private static String setterName(Method method) {
+        var name = method.getName();
+        if (method.getParameterCount() != 1 || !name.startsWith("set") || name.length() <= 3) {
+            return null;
+        }
+        return StringUtils.uncapitalize(name.substring(3));
+    }
+
+    /**
+     * SingleValueObject가 감싼 값의 Type
+     * @return 값 객체가 아니거나 Type을 알 수 없으면 null
+     */
+    private static Class<?> valueType(Class<?> type) {
+        if (!SingleValueObject.class.isAssignableFrom(type)) {
+            return null;
+        }
+        return GenericTypeResolver.resolveTypeArgument(type, SingleValueObject.class);
+    }
+
+    /**
+     * 값 객체의 static of(value) 생성 함수
+     */
+    private static Method factory(Class<?> type, Class<?> valueType) {
+        if (!isBean(type)) {
+            return null;
+        }
+        for (var method : type.getDeclaredMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) && "of".equals(method.getName())
+                    && method.getParameterCount() == 1
+                    && ClassUtils.isAssignable(method.getParameterTypes()[0], valueType)
+                    && type.isAssignableFrom(method.getReturnType())) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBean(Class<?> type) {
+        return !type.isPrimitive() && !type.isEnum() && !type.isArray() && !type.isInterface()
+                && !type.getName().startsWith("java.");
+    }
+
+    private static MethodHandle constructor(Class<?> type) {
+        try {
+            var lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            return lookup.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("fail to access constructor of '" + type.getName() + "'", e);
+        }
+    }
+
+    private static MethodHandle handle(Method method, MethodType type) {
+        try {
+            var lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            return lookup.unreflect(method).asType(type);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("fail to access '" + method + "'", e);
+        }
+    }
+
+    /**
+     * 속성 하나의 Mapping
+     */
+    private static class PropertyMapping {
+        // Source에서 값을 꺼내는 Getter 목록 (속성 경로, 값 객체인 경우 value() 추가)
+        private final MethodHandle[] getters;
+        private final MethodHandle setter;
+        // 값 변환, 없으면 null
+        private final Function<Object, Object> converter;
+        // Setter가 primitive를 받는지 여부 (null 설정 불가)
+        private final boolean primitive;
+
+        private PropertyMapping(List<MethodHandle> getters, MethodHandle setter,
+                                Function<Object, Object> converter, boolean primitive) {
+            this.getters = getters.toArray(MethodHandle[]::new);
+            this.setter = setter;
+            this.converter = converter;
+            this.primitive = primitive;
+        }
+
+        private void apply(Object source, Object destination) throws Throwable {
+            Object value = source;
+            for (var getter : getters) {
+                value = (Object) getter.invokeExact(value);
+                if (null == value) {
+                    break;
+                }
+            }
+            if (null == value) {
+                if (primitive) {
+                    return;
+                }
+            } else if (null != converter) {
+                value = converter.apply(value);
+            }
+            setter.invokeExact(destination, value);
+        }
+    }
+
+    /**
+     * Cache Key (Source Class, Destination Class)
+     */
+    private static class Key {
+        private final Class<?> sourceClass;
+        private final Class<?> destinationClass;
+
+        private Key(Class<?> sourceClass, Class<?> destinationClass) {
+            this.sourceClass = sourceClass;
+            this.destinationClass = destinationClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            var key = (Key) o;
+            return sourceClass.equals(key.sourceClass) && destinationClass.equals(key.destinationClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sourceClass, destinationClass);
+        }
+    }
+}
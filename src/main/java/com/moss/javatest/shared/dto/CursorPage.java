@@ -0,0 +1,22 @@
+package com.moss.javatest.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cursor(Keyset) 기반 페이지
+ * @param <T> 항목 Type
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(staticName = "of")
+public class CursorPage<T> {
+    // 항목 목록
+    private List<T> items;
+
+    // 다음 페이지 커서, 마지막 페이지인 경우 null
+    private String next;
+}
@@ -1,20 +1,47 @@
 package com.moss.javatest.shared.dto;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.config.Configuration;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.core.annotation.AnnotationUtils;
 
+import javax.persistence.Entity;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Model을 Dto로 Dto를 Model로 변환하기 위한 Helper 함수 모음
+ * 변환은 (Source Class, Destination Class)별로 한번 분석한 CompiledMapper를 사용
  */
 public class DtoAssembler {
-    static final ModelMapper modelMapper;
-    static {
-        modelMapper = new ModelMapper();
-        modelMapper.getConfiguration().setMethodAccessLevel(Configuration.AccessLevel.PRIVATE);
+    // 병렬 변환을 시작하는 목록 크기 (system property: dto-assembler.parallel-threshold)
+    private static volatile int parallelThreshold = Integer.getInteger("dto-assembler.parallel-threshold", 10_000);
+    // 병렬 변환 작업 하나가 처리하는 목록 크기
+    private static final int ParallelChunkSize = 1_024;
+
+    /**
+     * 병렬 변환 전용 Pool (공용 ForkJoinPool을 사용하는 다른 작업과 분리)
+     */
+    private static class ParallelPool {
+        private static final ForkJoinPool Instance = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 병렬 변환을 시작하는 목록 크기 설정
+     */
+    public static void setParallelThreshold(int threshold) {
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * 병렬 변환을 시작하는 목록 크기
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
     }
 
     /**
@@ -26,7 +53,7 @@ public class DtoAssembler {
             return null;
         }
         // source to destination
-        var destination = modelMapper.map(source, destinationClass);
+        var destination = mapper(source, destinationClass).map(source);
         if (null == modifier) {
             return destination;
         }
@@ -66,6 +93,73 @@ public class DtoAssembler {
         return models.stream().map(model -> to(model, dtoClass, modifier)).collect(Collectors.toUnmodifiableList());
     }
 
+    /**
+     * models를 dtos로 병렬 변환
+     * 목록 크기가 parallelThreshold 미만이면 순차 변환, 결과 순서는 models 순서와 같음
+     */
+    public static <D, M> List<D> toParallel(List<M> models, Class<D> dtoClass) {
+        return toParallel(models, dtoClass, null);
+    }
+
+    /**
+     * models를 dtos로 병렬 변환
+     * 목록 크기가 parallelThreshold 미만이면 순차 변환, 결과 순서는 models 순서와 같음
+     * Dto 사이의 변환 전용, Entity는 다른 Thread에서 지연 로딩할 수 없으므로 IllegalArgumentException
+     * 결과는 to와 같이 null 항목이 없는 변경 불가 목록
+     */
+    @SuppressWarnings("unchecked")
+    public static <D, M> List<D> toParallel(List<M> models, Class<D> dtoClass, BiFunction<M, D, D> modifier) {
+        if (null == models) {
+            return null;
+        }
+        if (models.size() < parallelThreshold) {
+            return to(models, dtoClass, modifier);
+        }
+        // 구간별 접근을 위해 RandomAccess 목록으로 변환
+        var source = models instanceof RandomAccess ? models : new ArrayList<>(models);
+        var dtos = new Object[source.size()];
+        ParallelPool.Instance.invoke(new ConvertAction<>(source, dtos, 0, source.size(), dtoClass, modifier));
+        return List.of((D[]) dtos);
+    }
+
+    /**
+     * models를 필요할 때 변환하는 Stream으로 반환
+     * 각 항목은 Stream이 소비할 때 변환되고, 변환 결과를 목록으로 보관하지 않음
+     */
+    public static <D, M> Stream<D> toStream(List<M> models, Class<D> dtoClass) {
+        return toStream(models, dtoClass, null);
+    }
+
+    /**
+     * models를 필요할 때 변환하는 Stream으로 반환
+     * 각 항목은 Stream이 소비할 때 변환되고, 변환 결과를 목록으로 보관하지 않음
+     */
+    public static <D, M> Stream<D> toStream(List<M> models, Class<D> dtoClass, BiFunction<M, D, D> modifier) {
+        if (null == models) {
+            return null;
+        }
+        return models.stream().map(model -> to(model, dtoClass, modifier));
+    }
+
+    /**
+     * models를 필요할 때 변환하는 Iterable로 반환 (Jackson은 Iterable을 배열로 직렬화)
+     * 순회할 때마다 다시 변환
+     */
+    public static <D, M> Iterable<D> toIterable(List<M> models, Class<D> dtoClass) {
+        return toIterable(models, dtoClass, null);
+    }
+
+    /**
+     * models를 필요할 때 변환하는 Iterable로 반환 (Jackson은 Iterable을 배열로 직렬화)
+     * 순회할 때마다 다시 변환
+     */
+    public static <D, M> Iterable<D> toIterable(List<M> models, Class<D> dtoClass, BiFunction<M, D, D> modifier) {
+        if (null == models) {
+            return null;
+        }
+        return () -> toStream(models, dtoClass, modifier).iterator();
+    }
+
     /**
      * dto로 부터 model을 생성
      */
@@ -107,11 +201,66 @@ public class DtoAssembler {
     /**
      * Source를 Destination에 Mapping
      */
+    @SuppressWarnings("unchecked")
     public static <S, D> D map(S source, D destination, BiFunction<S, D, D> modifier) {
-        modelMapper.map(source, destination);
+        mapper(source, (Class<D>) destination.getClass()).map(source, destination);
         if (null != modifier) {
             destination = modifier.apply(source, destination);
         }
         return destination;
     }
+
+    /**
+     * Source 객체의 Class와 DestinationClass의 Mapper
+     */
+    @SuppressWarnings("unchecked")
+    private static <S, D> CompiledMapper<S, D> mapper(S source, Class<D> destinationClass) {
+        return CompiledMapper.of((Class<S>) source.getClass(), destinationClass);
+    }
+
+    /**
+     * Entity 또는 Hibernate Proxy 여부
+     */
+    private static boolean isEntity(Object model) {
+        return model instanceof HibernateProxy
+                || (null != model && null != AnnotationUtils.findAnnotation(model.getClass(), Entity.class));
+    }
+
+    /**
+     * 목록 구간을 나누어 변환하는 작업, 결과는 같은 위치에 저장
+     */
+    private static class ConvertAction<D, M> extends RecursiveAction {
+        private final List<M> models;
+        private final Object[] dtos;
+        private final int from;
+        private final int to;
+        private final Class<D> dtoClass;
+        private final BiFunction<M, D, D> modifier;
+
+        private ConvertAction(List<M> models, Object[] dtos, int from, int to, Class<D> dtoClass, BiFunction<M, D, D> modifier) {
+            this.models = models;
+            this.dtos = dtos;
+            this.from = from;
+            this.to = to;
+            this.dtoClass = dtoClass;
+            this.modifier = modifier;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ParallelChunkSize) {
+                for (int i = from; i < to; i++) {
+                    var model = models.get(i);
+                    if (isEntity(model)) {
+                        throw new IllegalArgumentException("entity can not convert in parallel. " + model.getClass().getName());
+                    }
+                    dtos[i] = DtoAssembler.to(model, dtoClass, modifier);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ConvertAction<>(models, dtos, from, middle, dtoClass, modifier),
+                    new ConvertAction<>(models, dtos, middle, to, dtoClass, modifier));
+        }
+    }
 }
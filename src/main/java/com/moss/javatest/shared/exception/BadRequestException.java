@@ -0,0 +1,18 @@
+package com.moss.javatest.shared.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 요청 값이 잘못된 경우 (400 Bad Request로 응답)
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends IllegalArgumentException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,10 @@
+package com.moss.javatest.shared.exception;
+
+/**
+ * 요청 본문을 읽을 수 없는 경우 (JSON, CBOR 등 형식 오류)
+ */
+public class InvalidBodyException extends BadRequestException {
+    public InvalidBodyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
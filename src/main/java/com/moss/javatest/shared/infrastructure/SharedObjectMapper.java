@@ -1,9 +1,12 @@
 package com.moss.javatest.shared.infrastructure;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.moss.javatest.shared.infrastructure.jackson.OffsetDateTimeDeserializer;
 import com.moss.javatest.shared.infrastructure.jackson.OffsetDateTimeSerializer;
 
@@ -11,10 +14,20 @@ import java.time.OffsetDateTime;
 
 /**
  * Custom ObjectMapper
+ * JSON, CBOR, Smile 모두 같은 설정, 같은 OffsetDateTime 처리를 사용
  */
 public class SharedObjectMapper extends ObjectMapper {
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     public SharedObjectMapper() {
-        super();
+        this(null);
+    }
+
+    /**
+     * @param factory 형식별 JsonFactory (CBORFactory, SmileFactory), null이면 JSON
+     */
+    public SharedObjectMapper(JsonFactory factory) {
+        super(factory);
 
         // json의 속성이 변경되었을 때 에러 발생을 막기 위함
         this.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
@@ -31,4 +44,20 @@ public class SharedObjectMapper extends ObjectMapper {
 
         this.registerModule(module);
     }
+
+    /**
+     * CBOR 형식 ObjectMapper
+     * @return CBORFactory를 사용하는 SharedObjectMapper
+     */
+    public static SharedObjectMapper cbor() {
+        return new SharedObjectMapper(new CBORFactory());
+    }
+
+    /**
+     * Smile 형식 ObjectMapper
+     * @return SmileFactory를 사용하는 SharedObjectMapper
+     */
+    public static SharedObjectMapper smile() {
+        return new SharedObjectMapper(new SmileFactory());
+    }
 }
@@ -0,0 +1,118 @@
+package com.moss.javatest.shared.infrastructure.batch;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * 동시에 들어온 단건 조회를 모아서 한번에 조회 (DataLoader 방식)
+ *
+ * 첫 요청 후 window 동안 들어온 Key를 모아 loader를 한번 호출하며, 같은 Key는 하나로 합친다.
+ * 모인 Key가 maxBatchSize에 도달하면 window를 기다리지 않고 요청한 스레드에서 바로 조회한다.
+ * loader는 요청한 스레드의 트랜잭션 밖에서 실행되므로 commit 된 데이터만 조회된다.
+ * @param <K> Key Type
+ * @param <V> 값 Type
+ */
+public class BatchLoader<K, V> implements AutoCloseable {
+    private final Function<Set<K>, Map<K, V>> loader;
+    private final V defaultValue;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final IntConsumer batchSizeListener;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    // 조회 대기 중인 Key -> 결과
+    private Map<K, CompletableFuture<V>> pending = new HashMap<>();
+    // window 후 조회 예약 여부
+    private boolean scheduled = false;
+
+    /**
+     * @param name 조회 스레드 이름
+     * @param loader Key 집합으로 값 조회, 결과에 없는 Key는 defaultValue
+     * @param defaultValue 결과에 없는 Key의 값
+     * @param window 모으는 시간
+     * @param maxBatchSize 한번에 조회할 최대 Key 수
+     * @param batchSizeListener 조회할 때마다 Key 수 전달 (통계용)
+     */
+    public BatchLoader(String name, Function<Set<K>, Map<K, V>> loader, V defaultValue,
+                       Duration window, int maxBatchSize, IntConsumer batchSizeListener) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive. (" + maxBatchSize + ")");
+        }
+        this.loader = loader;
+        this.defaultValue = defaultValue;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizeListener = batchSizeListener;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 조회 요청
+     * @param key Key
+     * @return 결과, loader가 실패하면 같은 묶음의 모든 요청이 같은 예외로 실패
+     */
+    public CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future;
+        Map<K, CompletableFuture<V>> full = null;
+        synchronized (lock) {
+            future = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new HashMap<>();
+            } else if (!scheduled) {
+                scheduled = true;
+                scheduler.schedule(this::dispatchPending, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (null != full) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    /**
+     * window가 지나면 대기 중인 Key 조회
+     */
+    private void dispatchPending() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new HashMap<>();
+            scheduled = false;
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        batchSizeListener.accept(batch.size());
+        Map<K, V> values;
+        try {
+            values = loader.apply(batch.keySet());
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            return;
+        }
+        batch.forEach((key, future) -> future.complete(values.getOrDefault(key, defaultValue)));
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        dispatchPending();
+    }
+}
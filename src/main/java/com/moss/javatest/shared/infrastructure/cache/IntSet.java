@@ -0,0 +1,75 @@
+package com.moss.javatest.shared.infrastructure.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 불변 int 집합 (정렬된 int[] + 이진 검색)
+ * 변경은 새 집합을 만들어 교체 (Copy-on-Write), 읽기는 lock, boxing 없음
+ * 수백 ~ 수천개 정도의 자주 바뀌지 않는 Id 집합용
+ */
+public final class IntSet {
+    public static final IntSet Empty = new IntSet(new int[0]);
+
+    private final int[] values;
+
+    private IntSet(int[] values) {
+        this.values = values;
+    }
+
+    /**
+     * 집합 생성
+     * @param values 값 목록 (중복, null 무시)
+     * @return 집합
+     */
+    public static IntSet of(Collection<Integer> values) {
+        return new IntSet(values.stream()
+                .filter(value -> null != value)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .distinct()
+                .toArray());
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * value를 추가한 새 집합
+     * @param value 값
+     * @return 이미 있으면 this
+     */
+    public IntSet with(int value) {
+        int index = Arrays.binarySearch(values, value);
+        if (index >= 0) {
+            return this;
+        }
+        int insert = -index - 1;
+        var copy = new int[values.length + 1];
+        System.arraycopy(values, 0, copy, 0, insert);
+        copy[insert] = value;
+        System.arraycopy(values, insert, copy, insert + 1, values.length - insert);
+        return new IntSet(copy);
+    }
+
+    /**
+     * value를 제거한 새 집합
+     * @param value 값
+     * @return 없으면 this
+     */
+    public IntSet without(int value) {
+        int index = Arrays.binarySearch(values, value);
+        if (index < 0) {
+            return this;
+        }
+        var copy = new int[values.length - 1];
+        System.arraycopy(values, 0, copy, 0, index);
+        System.arraycopy(values, index + 1, copy, index, values.length - index - 1);
+        return new IntSet(copy);
+    }
+}
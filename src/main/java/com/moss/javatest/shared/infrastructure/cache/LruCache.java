@@ -0,0 +1,218 @@
+package com.moss.javatest.shared.infrastructure.cache;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 항목 수와 크기(byte 추정치)로 제한하는 LRU 캐시 (CLOCK 방식의 근사 LRU)
+ * 적중은 lock 없이 ConcurrentHashMap 조회와 사용 표시만 하고,
+ * 추가, 제거, 무효화만 lock으로 직렬화한다.
+ * 제한을 넘으면 추가 순서 Queue의 앞에서부터 사용 표시가 없는 항목을 제거한다.
+ * (사용 표시가 있으면 표시를 지우고 Queue 뒤로 보냄, 추가 한번의 제거 비용은 평균 O(1))
+ *
+ * 조회 중 그 Key가 무효화 조건에 맞으면 조회 결과를 캐시에 넣지 않는다.
+ * (무효화 이전 데이터로 만든 결과가 무효화 이후에 캐시되는 것을 방지, 다른 Key의 조회에는 영향 없음)
+ * @param <K> Key Type
+ * @param <V> 값 Type
+ */
+public class LruCache<K, V> {
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+
+    // 추가, 제거, 무효화 lock (조회는 lock 없음)
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    // 추가 순서 (CLOCK), writeLock 안에서만 사용, 제거, 교체된 항목이 남아있을 수 있음
+    private final ArrayDeque<Entry<K, V>> queue = new ArrayDeque<>();
+    // writeLock 안에서만 변경
+    private volatile long weight = 0;
+
+    // 조회(loader 실행) 중인 Key
+    private final Set<Load<K>> loads = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries 최대 항목 수
+     * @param maxWeight 최대 크기(byte 추정치)
+     * @param weigher 값의 크기(byte 추정치) 계산자
+     */
+    public LruCache(int maxEntries, long maxWeight, ToLongFunction<V> weigher) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * 캐시 조회, 없으면 loader로 만든 값을 캐시에 넣고 반환
+     * @param key Key
+     * @param loader 값 생성자 (lock 밖에서 실행)
+     * @return 값
+     */
+    public V get(K key, Supplier<V> loader) {
+        var entry = entries.get(key);
+        if (null != entry) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            hits.increment();
+            return entry.value;
+        }
+
+        misses.increment();
+        // loader 실행 전에 등록하므로, 등록 후의 무효화는 이 조회에 표시되고 등록 전의 무효화는 loader가 읽는 데이터에 반영됨
+        var load = new Load<>(key);
+        loads.add(load);
+        try {
+            var value = loader.get();
+            if (null == value) {
+                return null;
+            }
+            long valueWeight = weigher.applyAsLong(value);
+            if (valueWeight > maxWeight) {
+                return value;
+            }
+
+            writeLock.lock();
+            try {
+                if (load.invalidated) {
+                    // 조회 중 무효화 발생
+                    return value;
+                }
+                var added = new Entry<>(key, value, valueWeight);
+                var previous = entries.put(key, added);
+                queue.add(added);
+                long current = weight + valueWeight;
+                if (null != previous) {
+                    current -= previous.weight;
+                }
+                weight = current;
+                evict();
+            } finally {
+                writeLock.unlock();
+            }
+            return value;
+        } finally {
+            loads.remove(load);
+        }
+    }
+
+    /**
+     * 조건을 만족하는 Key의 항목 무효화, 조회 중인 Key가 조건을 만족하면 그 조회 결과는 캐시하지 않음
+     * @param predicate 무효화할 Key 조건
+     */
+    public void invalidateIf(Predicate<K> predicate) {
+        writeLock.lock();
+        try {
+            for (var load : loads) {
+                if (predicate.test(load.key)) {
+                    load.invalidated = true;
+                }
+            }
+            long current = weight;
+            var iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                if (predicate.test(entry.getKey())) {
+                    current -= entry.getValue().weight;
+                    iterator.remove();
+                }
+            }
+            weight = current;
+            if (queue.size() > entries.size()) {
+                // 제거된 항목을 Queue에서도 정리
+                queue.removeIf(entry -> entries.get(entry.key) != entry);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 전체 무효화
+     */
+    public void invalidateAll() {
+        invalidateIf(key -> true);
+    }
+
+    /**
+     * 제한을 넘으면 Queue 앞에서부터 사용 표시가 없는 항목 제거 (writeLock 안에서 호출)
+     * 사용 표시가 있는 항목은 표시를 지우고 뒤로 보내므로 Queue를 최대 두번 돌면 끝남
+     */
+    private void evict() {
+        long current = weight;
+        while ((entries.size() > maxEntries || current > maxWeight) && !queue.isEmpty()) {
+            var entry = queue.poll();
+            if (entries.get(entry.key) != entry) {
+                // 이미 제거, 교체된 항목
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                queue.add(entry);
+                continue;
+            }
+            entries.remove(entry.key);
+            current -= entry.weight;
+            evictions.increment();
+        }
+        weight = current;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long weight() {
+        return weight;
+    }
+
+    private static class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long weight;
+        // 마지막 제거 확인 이후 사용 여부
+        private volatile boolean referenced;
+
+        private Entry(K key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 조회 중인 Key
+     */
+    private static class Load<K> {
+        private final K key;
+        // 조회 중 무효화 여부 (writeLock 안에서 변경, 확인)
+        private boolean invalidated;
+
+        private Load(K key) {
+            this.key = key;
+        }
+    }
+}
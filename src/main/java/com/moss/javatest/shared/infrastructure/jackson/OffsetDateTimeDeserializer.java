@@ -2,6 +2,7 @@ package com.moss.javatest.shared.infrastructure.jackson;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.moss.javatest.shared.util.TimeUtils;
@@ -11,10 +12,14 @@ import java.time.OffsetDateTime;
 
 /**
  * ISO 8601을 OffsetDateTime으로 변환
+ * 문자열 토큰은 String 생성 없이 parser의 char 버퍼에서 바로 파싱
  */
 public class OffsetDateTimeDeserializer extends JsonDeserializer<OffsetDateTime> {
     @Override
     public OffsetDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            return TimeUtils.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        }
         return TimeUtils.parse(p.getValueAsString());
     }
 }
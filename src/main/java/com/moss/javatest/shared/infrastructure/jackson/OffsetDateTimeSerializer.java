@@ -10,10 +10,21 @@ import java.time.OffsetDateTime;
 
 /**
  * OffsetDateTime 객체를 ISO 8601 문자열로 변환
+ * String 생성 없이 thread별 char 버퍼에 출력 후 JsonGenerator에 바로 기록
  */
 public class OffsetDateTimeSerializer extends JsonSerializer<OffsetDateTime> {
+    // thread별 출력 버퍼
+    private static final ThreadLocal<char[]> Buffer = ThreadLocal.withInitial(() -> new char[TimeUtils.ISO8601_PRINT_LENGTH]);
+
     @Override
     public void serialize(OffsetDateTime value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
-        gen.writeString(TimeUtils.print(value));
+        var buffer = Buffer.get();
+        var length = TimeUtils.print(value, buffer, 0);
+        if (length < 0) {
+            // 고정 포맷 범위 밖
+            gen.writeString(TimeUtils.print(value));
+            return;
+        }
+        gen.writeString(buffer, 0, length);
     }
 }
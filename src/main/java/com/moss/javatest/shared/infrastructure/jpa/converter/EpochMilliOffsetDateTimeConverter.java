@@ -0,0 +1,32 @@
+package com.moss.javatest.shared.infrastructure.jpa.converter;
+
+import com.moss.javatest.shared.util.TimeUtils;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.time.OffsetDateTime;
+
+/**
+ * OffsetDateTime <-> epochMilli(BIGINT) Converter
+ * Timestamp, LocalDateTime을 거치지 않고 계산으로 변환하며 JVM 기본 Zone과 관계없이 같은 Instant를 유지
+ * 범위 조건(between, <, >)은 DB에서 정수 비교로 처리
+ * 조회 값은 기본 ZoneOffset 기준이며, 원래 offset과 millis 미만 값은 저장하지 않음
+ */
+@Converter
+public class EpochMilliOffsetDateTimeConverter implements AttributeConverter<OffsetDateTime, Long> {
+    @Override
+    public Long convertToDatabaseColumn(OffsetDateTime attribute) {
+        if (null == attribute) {
+            return null;
+        }
+        return TimeUtils.toEpochMilli(attribute);
+    }
+
+    @Override
+    public OffsetDateTime convertToEntityAttribute(Long dbData) {
+        if (null == dbData) {
+            return null;
+        }
+        return TimeUtils.from(dbData);
+    }
+}
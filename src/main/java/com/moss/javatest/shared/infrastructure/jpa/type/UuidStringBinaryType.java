@@ -0,0 +1,78 @@
+package com.moss.javatest.shared.infrastructure.jpa.type;
+
+import com.moss.javatest.shared.util.UuidUtils;
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+import org.hibernate.type.descriptor.sql.BinaryTypeDescriptor;
+
+import java.util.UUID;
+
+/**
+ * UUID 문자열 Hibernate Type
+ * Java에서는 UUID 문자열(36자), DB에는 BINARY(16)로 저장
+ * AttributeConverter는 Id(EmbeddedId 포함)에 적용되지 않으므로 Type으로 구현
+ * (사용) @Type(type = UuidStringBinaryType.Name) @Column(columnDefinition = "BINARY(16)")
+ */
+public class UuidStringBinaryType extends AbstractSingleColumnStandardBasicType<String> {
+    public static final String Name = "com.moss.javatest.shared.infrastructure.jpa.type.UuidStringBinaryType";
+
+    public UuidStringBinaryType() {
+        super(BinaryTypeDescriptor.INSTANCE, UuidStringTypeDescriptor.INSTANCE);
+    }
+
+    @Override
+    public String getName() {
+        return "uuid-string-binary";
+    }
+
+    /**
+     * UUID 문자열 <-> 16 byte 변환
+     */
+    private static class UuidStringTypeDescriptor extends AbstractTypeDescriptor<String> {
+        private static final UuidStringTypeDescriptor INSTANCE = new UuidStringTypeDescriptor();
+
+        private UuidStringTypeDescriptor() {
+            super(String.class);
+        }
+
+        @Override
+        public String toString(String value) {
+            return value;
+        }
+
+        @Override
+        public String fromString(String string) {
+            return string;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <X> X unwrap(String value, Class<X> type, WrapperOptions options) {
+            if (null == value) {
+                return null;
+            }
+            if (byte[].class.isAssignableFrom(type)) {
+                return (X) UuidUtils.toBytes(UUID.fromString(value));
+            }
+            if (String.class.isAssignableFrom(type)) {
+                return (X) value;
+            }
+            throw unknownUnwrap(type);
+        }
+
+        @Override
+        public <X> String wrap(X value, WrapperOptions options) {
+            if (null == value) {
+                return null;
+            }
+            if (value instanceof byte[]) {
+                return UuidUtils.fromBytes((byte[]) value).toString();
+            }
+            if (value instanceof String) {
+                return (String) value;
+            }
+            throw unknownWrap(value.getClass());
+        }
+    }
+}
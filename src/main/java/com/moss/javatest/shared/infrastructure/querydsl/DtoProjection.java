@@ -0,0 +1,194 @@
+package com.moss.javatest.shared.infrastructure.querydsl;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Visitor;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 조회 결과 행을 Dto로 변환하는 Projection
+ * Projections.fields와 달리 (Dto Class, Expression 목록) 마다 한번만 생성자, Setter를 찾고
+ * LambdaMetafactory로 만든 함수로 값을 설정하므로 행마다 Reflection을 사용하지 않는다.
+ *
+ * Expression과 Dto 속성의 연결 규칙
+ * - alias가 있으면 alias
+ * - Path이면 Root 바로 아래 속성 이름 (book.categoryId.id -> categoryId)
+ * @param <T> Dto Type
+ */
+public class DtoProjection<T> extends FactoryExpressionBase<T> {
+    private static final Map<Key, DtoProjection<?>> Cache = new ConcurrentHashMap<>();
+
+    private final List<Expression<?>> args;
+    private final Supplier<Object> constructor;
+    private final BiConsumer<Object, Object>[] setters;
+
+    /**
+     * Projection 조회, 없으면 생성
+     * @param type Dto Type
+     * @param expressions 조회할 값의 Expression 목록
+     * @param <T> Dto Type
+     * @return Projection
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> DtoProjection<T> of(Class<? extends T> type, Expression<?>... expressions) {
+        var key = new Key(type, List.of(expressions));
+        return (DtoProjection<T>) Cache.computeIfAbsent(key, k -> new DtoProjection<T>(type, k.expressions));
+    }
+
+    @SuppressWarnings("unchecked")
+    private DtoProjection(Class<? extends T> type, List<Expression<?>> args) {
+        super(type);
+        this.args = args;
+        this.constructor = constructor(type);
+        this.setters = new BiConsumer[args.size()];
+        for (int i = 0; i < args.size(); i++) {
+            var expression = args.get(i);
+            setters[i] = setter(type, propertyName(expression), expression.getType());
+        }
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T newInstance(Object... values) {
+        var instance = constructor.get();
+        for (int i = 0; i < values.length; i++) {
+            if (null != values[i]) {
+                setters[i].accept(instance, values[i]);
+            }
+        }
+        return (T) instance;
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    /**
+     * Expression에 연결할 Dto 속성 이름
+     */
+    static String propertyName(Expression<?> expression) {
+        if (expression instanceof Operation && ((Operation<?>) expression).getOperator() == Ops.ALIAS) {
+            var alias = ((Operation<?>) expression).getArg(1);
+            return alias instanceof Path ? ((Path<?>) alias).getMetadata().getName() : alias.toString();
+        }
+        if (expression instanceof Path) {
+            var path = (Path<?>) expression;
+            // Root 바로 아래 Path 까지 이동 (Embedded 속성)
+            while (null != path.getMetadata().getParent() && null != path.getMetadata().getParent().getMetadata().getParent()) {
+                path = path.getMetadata().getParent();
+            }
+            return path.getMetadata().getName();
+        }
+        throw new IllegalArgumentException("expression '" + expression + "' needs an alias.");
+    }
+
+    /**
+     * 기본 생성자 함수 생성
+     */
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructor(Class<?> type) {
+        try {
+            var lookup = MethodHandles.lookup();
+            var handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+            var site = LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    handle,
+                    MethodType.methodType(type));
+            return (Supplier<Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("fail to create constructor of '" + type.getName() + "'", e);
+        }
+    }
+
+    /**
+     * Setter 함수 생성
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Class<?> type, String name, Class<?> valueType) {
+        var method = findSetter(type, name);
+        var parameterType = method.getParameterTypes()[0];
+        if (!ClassUtils.isAssignable(parameterType, valueType)) {
+            throw new IllegalArgumentException("'" + type.getName() + "." + name + "' is not assignable from '"
+                    + valueType.getName() + "'");
+        }
+        try {
+            var lookup = MethodHandles.lookup();
+            var handle = lookup.unreflect(method);
+            var site = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, type, ClassUtils.resolvePrimitiveIfNecessary(parameterType)));
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("fail to create setter of '" + type.getName() + "." + name + "'", e);
+        }
+    }
+
+    private static Method findSetter(Class<?> type, String name) {
+        var setterName = "set" + StringUtils.capitalize(name);
+        return Arrays.stream(type.getMethods())
+                .filter(method -> method.getName().equals(setterName) && method.getParameterCount() == 1)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("setter '" + type.getName() + "." + setterName + "' not found."));
+    }
+
+    /**
+     * Cache Key (Dto Type, Expression 목록)
+     */
+    private static class Key {
+        private final Class<?> type;
+        private final List<Expression<?>> expressions;
+
+        private Key(Class<?> type, List<Expression<?>> expressions) {
+            this.type = type;
+            this.expressions = expressions;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            var key = (Key) o;
+            return type.equals(key.type) && expressions.equals(key.expressions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, expressions);
+        }
+    }
+}
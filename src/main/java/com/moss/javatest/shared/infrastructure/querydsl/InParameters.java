@@ -0,0 +1,60 @@
+package com.moss.javatest.shared.infrastructure.querydsl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * IN 조건 파라미터 목록 처리
+ * IN (?, ?, ...)의 파라미터 수가 다르면 SQL이 달라져 Query Plan, Statement 캐시가 파라미터 수만큼 늘어나므로
+ * 파라미터 수를 2의 거듭제곱으로 맞춘다. (추가한 자리는 마지막 값 반복, 결과에는 영향 없음)
+ */
+public class InParameters {
+    // IN 한번에 넣을 최대 파라미터 수 (2의 거듭제곱)
+    public static final int MaxSize = 512;
+
+    private InParameters() { }
+
+    /**
+     * 파라미터 수를 2의 거듭제곱으로 맞춤
+     * @param values 값 목록 (비어있지 않아야 함)
+     * @param <T> 값 Type
+     * @return 크기가 2의 거듭제곱인 목록, 이미 맞으면 values
+     */
+    public static <T> List<T> pad(List<T> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("values must not be empty.");
+        }
+        int size = values.size();
+        int padded = Integer.highestOneBit(size);
+        if (padded == size) {
+            return values;
+        }
+        padded <<= 1;
+        var result = new ArrayList<T>(padded);
+        result.addAll(values);
+        var last = values.get(size - 1);
+        while (result.size() < padded) {
+            result.add(last);
+        }
+        return result;
+    }
+
+    /**
+     * 중복을 제거하고 maxSize 이하로 나눈 뒤 각각 2의 거듭제곱으로 맞춤
+     * @param values 값 목록 (null 무시)
+     * @param maxSize 묶음당 최대 값 수 (2의 거듭제곱)
+     * @param <T> 값 Type
+     * @return 묶음 목록
+     */
+    public static <T> List<List<T>> chunks(Collection<T> values, int maxSize) {
+        var distinct = new ArrayList<T>(new LinkedHashSet<>(values));
+        distinct.remove(null);
+        var chunks = new ArrayList<List<T>>();
+        for (int from = 0; from < distinct.size(); from += maxSize) {
+            chunks.add(pad(distinct.subList(from, Math.min(from + maxSize, distinct.size()))));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,61 @@
+package com.moss.javatest.shared.infrastructure.querydsl;
+
+import com.moss.javatest.shared.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset(Seek) Pagination 커서 인코딩/디코딩
+ * 마지막 행의 정렬 키 값들을 클라이언트가 해석할 필요 없는 문자열(opaque)로 변환
+ * 형식: base64url(값1).base64url(값2)...
+ */
+public class KeysetCursor {
+    private static final String Separator = ".";
+    private static final Base64.Encoder Encoder = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder Decoder = Base64.getUrlDecoder();
+
+    private KeysetCursor() { }
+
+    /**
+     * 정렬 키 값들을 커서로 인코딩
+     * @param values 정렬 키 값 목록 (null 불가)
+     * @return 커서
+     */
+    public static String encode(String... values) {
+        var builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (null == values[i]) {
+                throw new IllegalArgumentException("cursor value must not be null.");
+            }
+            if (i > 0) {
+                builder.append(Separator);
+            }
+            builder.append(Encoder.encodeToString(values[i].getBytes(StandardCharsets.UTF_8)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 커서를 정렬 키 값들로 디코딩
+     * @param cursor 커서
+     * @param size 정렬 키 값 개수
+     * @return 정렬 키 값 목록
+     * @throws BadRequestException 커서 형식이 잘못된 경우
+     */
+    public static String[] decode(String cursor, int size) {
+        var parts = cursor.split("\\" + Separator, -1);
+        if (parts.length != size) {
+            throw new BadRequestException("invalid cursor '" + cursor + "'");
+        }
+        var values = new String[size];
+        try {
+            for (int i = 0; i < size; i++) {
+                values[i] = new String(Decoder.decode(parts[i]), StandardCharsets.UTF_8);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("invalid cursor '" + cursor + "'", e);
+        }
+        return values;
+    }
+}
@@ -1,12 +1,23 @@
 package com.moss.javatest.shared.infrastructure.querydsl;
 
 import com.google.common.collect.Lists;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.ConstantImpl;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
 import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -241,35 +252,115 @@ public class Predicates {
             result.add(handler.each(Predicates.start(), item));
         }
 
-        BooleanExpression loopResult = null;
+        List<BooleanExpression> itemExpressions = Lists.newArrayListWithCapacity(result.size());
         for (Predicates predicates : result) {
-            BooleanExpression itemExpression = null;
-            if (null != predicates) {
-                // 각 아이템의 Predicates로 부터 itemExpression(BooleanExpression) 반환
-                itemExpression = predicates.end();
-            }
-            if (null == itemExpression) {
-                // itemExpresion이 존재하지 않으면 통과
+            if (null == predicates) {
                 continue;
             }
-            if (null == loopResult) {
-                // 첫 유효한 itemExpression인 경우 LoopResult로 설정
-                loopResult = itemExpression;
-                continue;
+            // 각 아이템의 Predicates로 부터 itemExpression(BooleanExpression) 반환
+            // itemExpresion이 존재하지 않으면 통과
+            BooleanExpression itemExpression = predicates.end();
+            if (null != itemExpression) {
+                itemExpressions.add(itemExpression);
             }
+        }
 
-            // JoinOps에 따라 itemExpression을 loopResult에 Join
-            switch (joinOps) {
-                case And: loopResult = loopResult.and(itemExpression); break;
-                case Or: loopResult = loopResult.or(itemExpression); break;
-                default: throw new IllegalArgumentException("invalid join ops '" + joinOps + "'");
-            }
+        // JoinOps에 따라 itemExpression들을 Join
+        if (JoinOps.Or == joinOps) {
+            itemExpressions = collapseEqualsToIn(itemExpressions);
+        } else if (JoinOps.And != joinOps) {
+            throw new IllegalArgumentException("invalid join ops '" + joinOps + "'");
         }
+        BooleanExpression loopResult = balance(itemExpressions, joinOps, 0, itemExpressions.size());
 
         // 목록 처리 결과 적용
         return apply(loopResult);
     }
 
+    /**
+     * 같은 Path에 대한 (path = 값) 여러개를 path in (값, ...) 하나로 변환 (Or Join 전용)
+     * IN 목록 크기는 2의 거듭제곱으로 맞춤 (InParameters.pad)
+     * @param expressions itemExpression 목록
+     * @return 변환된 목록 (각 Path의 첫번째 위치 유지)
+     */
+    private static List<BooleanExpression> collapseEqualsToIn(List<BooleanExpression> expressions) {
+        // Path -> (path = 값) 묶음
+        Map<Expression<?>, EqualsGroup> groups = new LinkedHashMap<>();
+        // BooleanExpression 또는 EqualsGroup (처음 나온 순서)
+        List<Object> ordered = Lists.newArrayListWithCapacity(expressions.size());
+        for (BooleanExpression expression : expressions) {
+            if (expression instanceof Operation && Ops.EQ == ((Operation<?>) expression).getOperator()) {
+                var left = ((Operation<?>) expression).getArg(0);
+                var right = ((Operation<?>) expression).getArg(1);
+                if (left instanceof Path && right instanceof Constant) {
+                    var group = groups.get(left);
+                    if (null == group) {
+                        group = new EqualsGroup(expression, left);
+                        groups.put(left, group);
+                        ordered.add(group);
+                    }
+                    group.values.add(((Constant<?>) right).getConstant());
+                    continue;
+                }
+            }
+            ordered.add(expression);
+        }
+
+        List<BooleanExpression> result = Lists.newArrayListWithCapacity(ordered.size());
+        for (Object item : ordered) {
+            if (item instanceof EqualsGroup) {
+                result.add(((EqualsGroup) item).toExpression());
+            } else {
+                result.add((BooleanExpression) item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 같은 Path에 대한 (path = 값) 묶음
+     */
+    private static class EqualsGroup {
+        // 첫번째 (path = 값), 값이 하나이면 그대로 사용
+        private final BooleanExpression first;
+        private final Expression<?> path;
+        private final Set<Object> values = new LinkedHashSet<>();
+
+        private EqualsGroup(BooleanExpression first, Expression<?> path) {
+            this.first = first;
+            this.path = path;
+        }
+
+        private BooleanExpression toExpression() {
+            if (1 == values.size()) {
+                return first;
+            }
+            var padded = InParameters.pad(new ArrayList<>(values));
+            return Expressions.booleanOperation(Ops.IN, path, ConstantImpl.create(padded));
+        }
+    }
+
+    /**
+     * 균형 잡힌 트리로 Join (왼쪽부터 차례로 Join하면 깊이가 목록 크기만큼 깊어짐)
+     * @param expressions itemExpression 목록
+     * @param joinOps Join 연산
+     * @param from 시작 위치 (포함)
+     * @param to 끝 위치 (미포함)
+     * @return Join된 BooleanExpression, 목록이 비어있으면 null
+     */
+    private static BooleanExpression balance(List<BooleanExpression> expressions, JoinOps joinOps, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        if (from + 1 == to) {
+            return expressions.get(from);
+        }
+        int middle = (from + to) >>> 1;
+        var left = balance(expressions, joinOps, from, middle);
+        var right = balance(expressions, joinOps, middle, to);
+        return JoinOps.And == joinOps ? left.and(right) : left.or(right);
+    }
+
     //// (e) loop
 
     //// (s) brace
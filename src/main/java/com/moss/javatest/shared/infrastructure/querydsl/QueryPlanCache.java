@@ -0,0 +1,133 @@
+package com.moss.javatest.shared.infrastructure.querydsl;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAProvider;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 조건 형태(shape)별 JPQL Plan 캐시
+ *
+ * 어떤 조건이 있는지(형태)에 따라서만 JPQL이 달라지는 쿼리를 값 대신 Param으로 한번 작성(Querydsl)하여 JPQL로 변환해 두고,
+ * 이후에는 Querydsl 식 생성, JPQL 변환 없이 저장된 JPQL에 값만 바인딩하여 실행한다.
+ * Collection 값은 Param 하나에 목록을 바인딩하므로 (Hibernate가 IN 목록 확장) 크기는 형태에 포함하지 않는다.
+ * (크기별 SQL이 늘어나지 않도록 InParameters.pad 사용 권장)
+ */
+public class QueryPlanCache {
+    private final Map<Object, Plan> plans = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 조회
+     * @param entityManager EntityManager
+     * @param shape 조건 형태 (equals, hashCode 구현 필요)
+     * @param template Plan이 없을 때 값 대신 Param으로 작성한 쿼리 생성
+     * @param bindings Param 이름 -> 값
+     * @param limit 최대 행 수
+     * @param <T> 결과 Type
+     * @return 결과 목록
+     */
+    public <T> List<T> fetch(EntityManager entityManager, Object shape, Supplier<JPQLQuery<T>> template,
+                             Map<String, Object> bindings, int limit) {
+        var plan = plans.get(shape);
+        if (null == plan) {
+            misses.increment();
+            plan = plans.computeIfAbsent(shape, key -> Plan.of(entityManager, template.get()));
+        } else {
+            hits.increment();
+        }
+        return plan.fetch(entityManager, bindings, limit);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 적중률 (조회가 없으면 0)
+     */
+    public double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return 0 == total ? 0 : (double) hit / total;
+    }
+
+    public int size() {
+        return plans.size();
+    }
+
+    /**
+     * JPQL과 파라미터 위치별 값(Param 또는 고정값)
+     */
+    private static class Plan {
+        private final String jpql;
+        private final int[] positions;
+        private final Object[] constants;
+        private final Expression<?> projection;
+
+        private Plan(String jpql, int[] positions, Object[] constants, Expression<?> projection) {
+            this.jpql = jpql;
+            this.positions = positions;
+            this.constants = constants;
+            this.projection = projection;
+        }
+
+        private static Plan of(EntityManager entityManager, JPQLQuery<?> query) {
+            var metadata = query.getMetadata();
+            var serializer = new JPQLSerializer(JPAProvider.getTemplates(entityManager), entityManager);
+            serializer.serialize(metadata, false, null);
+
+            var constantToLabel = serializer.getConstantToLabel();
+            var positions = new int[constantToLabel.size()];
+            var constants = new Object[constantToLabel.size()];
+            int i = 0;
+            for (var entry : constantToLabel.entrySet()) {
+                positions[i] = Integer.parseInt(entry.getValue());
+                constants[i] = entry.getKey();
+                i++;
+            }
+            return new Plan(serializer.toString(), positions, constants, metadata.getProjection());
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> List<T> fetch(EntityManager entityManager, Map<String, Object> bindings, int limit) {
+            var query = entityManager.createQuery(jpql);
+            for (int i = 0; i < constants.length; i++) {
+                var constant = constants[i];
+                var value = constant instanceof ParamExpression
+                        ? bindings.get(((ParamExpression<?>) constant).getName())
+                        : constant;
+                query.setParameter(positions[i], value);
+            }
+            query.setMaxResults(limit);
+            List<?> rows = query.getResultList();
+            if (!(projection instanceof FactoryExpression)) {
+                return (List<T>) rows;
+            }
+
+            var factory = (FactoryExpression<T>) projection;
+            boolean single = 1 == factory.getArgs().size();
+            var result = new ArrayList<T>(rows.size());
+            for (var row : rows) {
+                result.add(single ? factory.newInstance(row) : factory.newInstance((Object[]) row));
+            }
+            return result;
+        }
+    }
+}
@@ -2,34 +2,55 @@ package com.moss.javatest.shared.infrastructure.querydsl;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Queues;
+import com.moss.javatest.shared.exception.BadRequestException;
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.Path;
-import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BeanPath;
 import com.querydsl.core.types.dsl.EntityPathBase;
 import com.querydsl.jpa.JPAExpressions;
 import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.AbstractJPAQuery;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.data.jpa.repository.support.QuerydslRepositorySupport;
 import org.springframework.util.StringUtils;
 
+import javax.persistence.LockModeType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Querydsl 사용을 위한 helper 함수를 추가한 QuerydslRepositorySupport
  */
 @Slf4j
 public class SharedQuerydslRepositorySupport extends QuerydslRepositorySupport {
+    // page당 기본 항목 수
+    protected static final int DefaultPageSize = 20;
+    // page당 최대 항목 수
+    protected static final int MaxPageSize = 100;
+    // like escape 문자 (역슬래시는 MySQL 문자열 literal 안에서 escape로 해석되므로 사용하지 않음)
+    protected static final char LikeEscape = '!';
+
     private Class<? extends EntityPathBase> qDomainClass;
 
     private Expression[] expressions;
 
+    // 요청 필드 목록(정렬) -> Expression 배열
+    private final Map<List<String>, Expression[]> fieldExpressions = new ConcurrentHashMap<>();
+
     protected void setExpressions(Expression[] expressions) {
         this.expressions = expressions;
+        this.fieldExpressions.clear();
     }
 
     protected Expression[] getExpressions() {
@@ -87,6 +108,39 @@ public class SharedQuerydslRepositorySupport extends QuerydslRepositorySupport {
         return expressions;
     }
 
+    /**
+     * 요청한 필드의 Expression 배열 (Sparse Fieldset)
+     * 필드 이름은 Dto 속성 이름 (DtoProjection 규칙), 필드 조합별로 한번만 계산
+     * @param fields 요청 필드 목록, 없거나 모두 빈 값이면 전체
+     * @param requiredFields 요청하지 않아도 포함할 필드 목록
+     * @return Expression 배열 (getExpressions()의 순서 유지)
+     * @throws BadRequestException 없는 필드를 요청한 경우
+     */
+    protected Expression[] getExpressions(Collection<String> fields, String... requiredFields) {
+        if (null == fields || fields.isEmpty()) {
+            return getExpressions();
+        }
+        var names = new TreeSet<String>();
+        fields.stream().filter(StringUtils::hasText).map(String::trim).forEach(names::add);
+        if (names.isEmpty()) {
+            // fields=, 처럼 빈 값만 있는 경우
+            return getExpressions();
+        }
+        names.addAll(Arrays.asList(requiredFields));
+        return fieldExpressions.computeIfAbsent(List.copyOf(names), key -> {
+            var available = Arrays.stream(getExpressions())
+                    .collect(Collectors.toMap(DtoProjection::propertyName, expression -> expression));
+            for (String name : key) {
+                if (!available.containsKey(name)) {
+                    throw new BadRequestException("unknown field '" + name + "'");
+                }
+            }
+            return Arrays.stream(getExpressions())
+                    .filter(expression -> key.contains(DtoProjection.propertyName(expression)))
+                    .toArray(Expression[]::new);
+        });
+    }
+
     /**
      * page, size로 offset 계산
      * @param page 1부터 시작하는 page
@@ -97,8 +151,21 @@ public class SharedQuerydslRepositorySupport extends QuerydslRepositorySupport {
         return (page - 1)*size;
     }
 
+    /**
+     * 요청한 page 크기를 서버 최대값 이내로 제한
+     * @param size 요청한 page당 항목 수, null이거나 0 이하인 경우 기본값 사용
+     * @return 1 ~ MaxPageSize 범위의 page당 항목 수
+     */
+    protected int limit(Integer size) {
+        if (null == size || size <= 0) {
+            return DefaultPageSize;
+        }
+        return Math.min(size, MaxPageSize);
+    }
+
     /**
      * keyword 양쪽 like 처리
+     * keyword의 %, _, LikeEscape는 escape 하므로 like(..., LikeEscape)와 함께 사용
      * @param keyword 키워드
      * @return 키워드 양쪽 like 처리(%키워드%)
      */
@@ -106,7 +173,24 @@ public class SharedQuerydslRepositorySupport extends QuerydslRepositorySupport {
         if (!StringUtils.hasText(keyword)) {
             return keyword;
         }
-        return "%" + keyword + "%";
+        return "%" + escapeLike(keyword) + "%";
+    }
+
+    /**
+     * like 패턴 문자(%, _)와 LikeEscape를 escape
+     * @param value 값
+     * @return escape 한 값
+     */
+    protected String escapeLike(String value) {
+        var builder = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ('%' == c || '_' == c || LikeEscape == c) {
+                builder.append(LikeEscape);
+            }
+            builder.append(c);
+        }
+        return builder.toString();
     }
 
     /**
@@ -133,13 +217,43 @@ public class SharedQuerydslRepositorySupport extends QuerydslRepositorySupport {
 
     /**
      * Select Dto
+     * Expression은 alias 또는 Root 바로 아래 속성 이름으로 Dto 속성에 연결 (DtoProjection 참고)
      * @param type 반환값 저장할 Type
      * @param expressions 조회할 값의 Expression 목록
      * @param <T> 반환값 Type
      * @return JPQLQuery
      */
     protected <T> JPQLQuery<T> select(Class<? extends T> type, Expression<?>... expressions) {
-        return getQuerydsl().createQuery().select(Projections.fields(type, expressions));
+        return getQuerydsl().createQuery().select(DtoProjection.<T>of(type, expressions));
+    }
+
+    /**
+     * 전방향(forward-only) Scroll로 조회
+     * 전체 결과를 메모리에 올리지 않고 fetchSize 만큼씩 DB에서 가져온다.
+     * 반환된 Iterator는 반드시 close 해야 하며, 트랜잭션 내에서 사용해야 한다.
+     * @param query 조회 쿼리
+     * @param fetchSize JDBC fetch size
+     * @param <T> 반환값 Type
+     * @return 결과 Iterator
+     */
+    protected <T> CloseableIterator<T> scroll(JPQLQuery<T> query, int fetchSize) {
+        var jpaQuery = (AbstractJPAQuery<T, ?>) query;
+        jpaQuery.setHint(QueryHints.FETCH_SIZE, fetchSize);
+        jpaQuery.setHint(QueryHints.READ_ONLY, true);
+        return jpaQuery.iterate();
+    }
+
+    /**
+     * 조회한 행을 트랜잭션이 끝날 때까지 잠금 (SELECT ... FOR UPDATE)
+     * 트랜잭션 내에서 사용해야 한다.
+     * @param query 조회 쿼리
+     * @param <T> 반환값 Type
+     * @return 잠금을 설정한 쿼리
+     */
+    protected <T> JPQLQuery<T> forUpdate(JPQLQuery<T> query) {
+        var jpaQuery = (AbstractJPAQuery<T, ?>) query;
+        jpaQuery.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        return jpaQuery;
     }
 
     /**
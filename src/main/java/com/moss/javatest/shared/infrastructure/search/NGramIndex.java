@@ -0,0 +1,280 @@
+package com.moss.javatest.shared.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * 메모리 기반 Bigram(2-gram) 역색인
+ * 부분 문자열(LIKE '%keyword%') 검색을 전체 스캔 없이 처리하기 위한 색인
+ *
+ * 검색: keyword의 bigram 중 posting이 가장 짧은 것을 골라 후보를 만들고,
+ *      저장된 문자열에 keyword가 실제로 포함되는지 확인하여 결과를 확정
+ * 수정/삭제: posting에서 바로 제거하지 않고(lazy), 검색시 확인 단계에서 걸러낸다.
+ *           제거되지 않은 posting이 살아있는 posting보다 많아지면 posting을 다시 만든다.
+ * @param <K> 문서 Key Type
+ * @param <D> 문서 Type
+ */
+public class NGramIndex<K, D> {
+    private static final int InitialCapacity = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Key -> slot
+    private final Map<K, Integer> slots = new HashMap<>();
+    // slot별 Key, 문서, 색인 문자열
+    private Object[] keys = new Object[InitialCapacity];
+    private Object[] documents = new Object[InitialCapacity];
+    private String[] texts = new String[InitialCapacity];
+    // 재사용 가능한 slot
+    private final BitSet freeSlots = new BitSet();
+    private int slotCount = 0;
+
+    // bigram -> slot 목록
+    private Map<Integer, Postings> postings = new HashMap<>();
+    private long livePostingCount = 0;
+    private long stalePostingCount = 0;
+
+    /**
+     * 문서 추가 또는 교체
+     * @param key 문서 Key
+     * @param document 문서
+     * @param text 색인할 문자열 (여러 필드인 경우 색인할 값들)
+     */
+    public void put(K key, D document, String... text) {
+        var normalized = normalize(text);
+        lock.writeLock().lock();
+        try {
+            var slot = slots.get(key);
+            if (null != slot) {
+                if (texts[slot].equals(normalized)) {
+                    // 문자열이 같으면 posting 변경 없음
+                    documents[slot] = document;
+                    return;
+                }
+                release(slot);
+            }
+            slot = allocate();
+            slots.put(key, slot);
+            keys[slot] = key;
+            documents[slot] = document;
+            texts[slot] = normalized;
+            index(slot, normalized);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 문서 삭제
+     * @param key 문서 Key
+     */
+    public void remove(K key) {
+        lock.writeLock().lock();
+        try {
+            var slot = slots.remove(key);
+            if (null != slot) {
+                release(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 문서 조회
+     * @param key 문서 Key
+     * @return 문서, 없으면 null
+     */
+    @SuppressWarnings("unchecked")
+    public D get(K key) {
+        lock.readLock().lock();
+        try {
+            var slot = slots.get(key);
+            return null == slot ? null : (D) documents[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 문서 수
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * keyword를 포함하는 문서 검색
+     * @param keyword 검색어 (대소문자 무시)
+     * @param filter 문서 필터, null이면 필터 없음
+     * @return keyword를 포함하고 filter를 만족하는 문서 목록 (순서 없음)
+     */
+    public List<D> search(String keyword, Predicate<D> filter) {
+        return search(keyword, filter, Integer.MAX_VALUE);
+    }
+
+    /**
+     * keyword를 포함하는 문서 검색, limit개를 찾으면 더 확인하지 않음
+     * @param keyword 검색어 (대소문자 무시)
+     * @param filter 문서 필터, null이면 필터 없음
+     * @param limit 최대 문서 수
+     * @return keyword를 포함하고 filter를 만족하는 문서 목록 (순서 없음, 최대 limit개)
+     */
+    @SuppressWarnings("unchecked")
+    public List<D> search(String keyword, Predicate<D> filter, int limit) {
+        var normalized = normalize(keyword);
+        var result = new ArrayList<D>();
+        if (normalized.isEmpty() || limit <= 0) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            // bigram이 없는(1글자) keyword는 모든 slot이 후보
+            Postings candidates = null;
+            if (normalized.length() >= 2) {
+                candidates = candidates(normalized);
+                if (null == candidates) {
+                    return result;
+                }
+            }
+            int candidateCount = null == candidates ? slotCount : candidates.size;
+            // 같은 문서가 여러번 색인된 경우(수정 후 lazy 삭제) 중복 제거
+            var visited = new BitSet(slotCount);
+            for (int i = 0; i < candidateCount && result.size() < limit; i++) {
+                int slot = null == candidates ? i : candidates.slots[i];
+                if (visited.get(slot)) {
+                    continue;
+                }
+                visited.set(slot);
+                if (null == texts[slot] || !texts[slot].contains(normalized)) {
+                    continue;
+                }
+                var document = (D) documents[slot];
+                if (null == filter || filter.test(document)) {
+                    result.add(document);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 검색 후보 slot 목록
+     * @param keyword 정규화된 keyword (2글자 이상)
+     * @return 후보 slot 목록, 후보가 없으면 null
+     */
+    private Postings candidates(String keyword) {
+        Postings shortest = null;
+        for (int i = 0; i < keyword.length() - 1; i++) {
+            var current = postings.get(bigram(keyword, i));
+            if (null == current) {
+                // 포함하는 문서가 없는 bigram
+                return null;
+            }
+            if (null == shortest || current.size < shortest.size) {
+                shortest = current;
+            }
+        }
+        return shortest;
+    }
+
+    private void index(int slot, String text) {
+        for (int i = 0; i < text.length() - 1; i++) {
+            postings.computeIfAbsent(bigram(text, i), gram -> new Postings()).add(slot);
+            livePostingCount++;
+        }
+    }
+
+    private int allocate() {
+        int slot = freeSlots.nextSetBit(0);
+        if (slot >= 0) {
+            freeSlots.clear(slot);
+            return slot;
+        }
+        slot = slotCount++;
+        if (slot == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            documents = Arrays.copyOf(documents, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        return slot;
+    }
+
+    private void release(int slot) {
+        int grams = Math.max(0, texts[slot].length() - 1);
+        livePostingCount -= grams;
+        stalePostingCount += grams;
+        keys[slot] = null;
+        documents[slot] = null;
+        texts[slot] = null;
+        freeSlots.set(slot);
+        if (stalePostingCount > livePostingCount && stalePostingCount > InitialCapacity) {
+            compact();
+        }
+    }
+
+    /**
+     * lazy 삭제된 posting 정리
+     */
+    private void compact() {
+        postings = new HashMap<>();
+        livePostingCount = 0;
+        stalePostingCount = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (null != texts[slot]) {
+                index(slot, texts[slot]);
+            }
+        }
+    }
+
+    private static int bigram(String text, int index) {
+        return (text.charAt(index) << 16) | text.charAt(index + 1);
+    }
+
+    /**
+     * 대소문자 무시를 위해 소문자로 변환, 여러 값은 bigram이 이어지지 않도록 '\0'으로 구분
+     */
+    private static String normalize(String... values) {
+        var builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append('\0');
+            }
+            if (null != values[i]) {
+                builder.append(values[i].toLowerCase(Locale.ROOT));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 증가만 하는 slot 목록
+     */
+    private static class Postings {
+        private int[] slots = new int[4];
+        private int size = 0;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
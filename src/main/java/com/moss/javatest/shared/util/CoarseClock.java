@@ -0,0 +1,130 @@
+package com.moss.javatest.shared.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * tick 마다 스레드 하나가 현재 시간을 갱신해 두고, 조회는 volatile 읽기 한번으로 처리하는 Clock
+ * 조회시 시스템 시계 조회, ZoneOffset 계산이 없는 대신 정밀도는 tick (ZoneOffset은 갱신할 때 Zone 규칙으로 계산)
+ * close 후에는 갱신하지 않으므로 TimeUtils에서 먼저 교체 후 close
+ */
+public class CoarseClock extends Clock implements AutoCloseable {
+    private final ZoneId zone;
+    private final ScheduledExecutorService scheduler;
+    // 마지막으로 갱신한 시간
+    private volatile Tick current;
+
+    /**
+     * @param name 갱신 스레드 이름
+     * @param zone 시간을 표시할 Zone (ZoneOffset 포함)
+     * @param tick 갱신 주기
+     */
+    public CoarseClock(String name, ZoneId zone, Duration tick) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("tick must be positive. (" + tick + ")");
+        }
+        this.zone = zone;
+        this.current = new Tick(Instant.now(), zone);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        var tickNanos = tick.toNanos();
+        this.scheduler.scheduleAtFixedRate(this::update, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void update() {
+        current = new Tick(Instant.now(), zone);
+    }
+
+    /**
+     * 마지막으로 갱신한 시간
+     * @return zone 기준 OffsetDateTime
+     */
+    public OffsetDateTime offsetDateTime() {
+        return current.offsetDateTime;
+    }
+
+    @Override
+    public long millis() {
+        return current.epochMilli;
+    }
+
+    @Override
+    public Instant instant() {
+        return current.instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (this.zone.equals(zone)) {
+            return this;
+        }
+        return new ZoneView(this, zone);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 한번에 갱신하는 시간 값 묶음
+     */
+    private static final class Tick {
+        private final Instant instant;
+        private final long epochMilli;
+        private final OffsetDateTime offsetDateTime;
+
+        private Tick(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.epochMilli = instant.toEpochMilli();
+            this.offsetDateTime = OffsetDateTime.ofInstant(instant, zone);
+        }
+    }
+
+    /**
+     * 다른 Zone으로 보는 CoarseClock (Clock.withZone)
+     */
+    private static final class ZoneView extends Clock {
+        private final CoarseClock base;
+        private final ZoneId zone;
+
+        private ZoneView(CoarseClock base, ZoneId zone) {
+            this.base = base;
+            this.zone = zone;
+        }
+
+        @Override
+        public long millis() {
+            return base.millis();
+        }
+
+        @Override
+        public Instant instant() {
+            return base.instant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return base.withZone(zone);
+        }
+    }
+}
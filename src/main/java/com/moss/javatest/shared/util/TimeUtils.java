@@ -16,6 +16,9 @@ import java.time.temporal.ChronoField;
  * 출력 및 파싱 패턴
  * ISO 8601     : yyyy-MM-ddTHH:mm:ss.SSSXXX
  * LocalDateTime: yyyy-MM-ddTHH:mm:ss.SSS
+ *
+ * 현재 시간은 교체 가능한 Clock에서 조회, offset은 시스템 기본 Zone 규칙으로 조회 시점마다 계산 (DST 반영)
+ * system(기본, 매번 시스템 시계 조회), coarse(CoarseClock, tick마다 갱신한 값), fixed(테스트용 고정 시간)
  */
 public class TimeUtils {
     public static final ZoneOffset DefaultZoneOffset = OffsetDateTime.now().getOffset();
@@ -24,6 +27,16 @@ public class TimeUtils {
     public static final DateTimeFormatter LOCAL_DATE_TIME_FORMATTER;
     public static final LocalTime LOCAL_TIME_END_OF_DAY = LocalTime.ofNanoOfDay(86399999000000L);
     public static final LocalTime LOCAL_TIME_END_OF_DAY_NO_NANO = LocalTime.ofNanoOfDay(86399000000000L);
+    // ISO8601_PRINT_FORMATTER 출력 최대 길이 (yyyy-MM-ddTHH:mm:ss.SSS+HH:mm)
+    public static final int ISO8601_PRINT_LENGTH = 29;
+
+    private static final int SecondsPerDay = 86400;
+    // 1970-01-01 기준 0000-03-01 까지의 일 수
+    private static final long DaysZeroToEpoch = 719468L;
+    private static final long DaysPerEra = 146097L;
+
+    // 현재 시간 조회에 사용하는 Clock
+    private static volatile Clock clock = systemClock();
 
     static {
         // 1970-01-01T00:00:00.000+09:00
@@ -72,7 +85,19 @@ public class TimeUtils {
      * @return 현재 시간 OffsetDateTime
      */
     public static OffsetDateTime now() {
-        return OffsetDateTime.now();
+        var current = clock;
+        if (current instanceof CoarseClock) {
+            return ((CoarseClock) current).offsetDateTime();
+        }
+        return OffsetDateTime.now(current);
+    }
+
+    /**
+     * 현재 시간의 epochMilli 조회
+     * @return 현재 시간 epochMilli
+     */
+    public static long nowEpochMilli() {
+        return clock.millis();
     }
 
     /**
@@ -84,6 +109,53 @@ public class TimeUtils {
         return now().withNano(0);
     }
 
+    //// (s) clock
+
+    /**
+     * 시스템 기본 Zone 기준으로 매번 시스템 시계를 조회하는 Clock
+     * 시작 시점의 ZoneOffset으로 고정하지 않으므로 DST 변경 후에도 now()의 offset이 맞음
+     * @return 시스템 Clock
+     */
+    public static Clock systemClock() {
+        return Clock.systemDefaultZone();
+    }
+
+    /**
+     * 현재 시간 조회에 사용 중인 Clock
+     * @return Clock
+     */
+    public static Clock clock() {
+        return clock;
+    }
+
+    /**
+     * 현재 시간 조회에 사용할 Clock 교체
+     * @param clock 사용할 Clock (CoarseClock, Clock.fixed 등)
+     */
+    public static void useClock(Clock clock) {
+        if (null == clock) {
+            throw new IllegalArgumentException("clock can not be null.");
+        }
+        TimeUtils.clock = clock;
+    }
+
+    /**
+     * 시스템 Clock으로 복구
+     */
+    public static void useSystemClock() {
+        useClock(systemClock());
+    }
+
+    /**
+     * 주어진 시간에 고정된 Clock 사용 (테스트용, 테스트 후 useSystemClock()으로 복구)
+     * @param offsetDateTime 고정할 시간
+     */
+    public static void useFixedClock(OffsetDateTime offsetDateTime) {
+        useClock(Clock.fixed(offsetDateTime.toInstant(), ZoneId.systemDefault()));
+    }
+
+    //// (e) clock
+
     /**
      * 기본 ZoneOffset 반환
      * @return 기본 ZoneOffset
@@ -107,7 +179,7 @@ public class TimeUtils {
      * @return epochMilli와 기본 ZoneOffset을 결합한 OffsetDateTime
      */
     public static OffsetDateTime from(long epochMilli) {
-        return from(Instant.ofEpochMilli(epochMilli));
+        return ofEpochSecond(Math.floorDiv(epochMilli, 1000), (int) Math.floorMod(epochMilli, 1000)*1000000);
     }
 
     /**
@@ -127,11 +199,34 @@ public class TimeUtils {
      * @return ISO 8601의 ZoneOffset을 기본 ZoneOffset으로 계산한 OffsetDateTime
      */
     public static OffsetDateTime parse(String iso8601) {
+        var chars = iso8601.toCharArray();
+        var result = parseFixed(chars, 0, chars.length);
+        if (null != result) {
+            return result;
+        }
         var offsetDateTime = OffsetDateTime.parse(iso8601);
         offsetDateTime = offsetDateTime.withOffsetSameInstant(zoneOffset());
         return offsetDateTime;
     }
 
+    /**
+     * char 배열의 ISO 8601 문자열을 기본 ZoneOffset 기준의 OffsetDateTime로 변환
+     * Jackson parser 버퍼 등에서 String 생성 없이 바로 파싱, 고정 포맷이 아닌 경우 parse(String)으로 처리
+     * @param chars ISO 8601 문자열을 포함한 char 배열
+     * @param offset 시작 위치
+     * @param length 길이
+     * @return ISO 8601의 ZoneOffset을 기본 ZoneOffset으로 계산한 OffsetDateTime
+     */
+    public static OffsetDateTime parse(char[] chars, int offset, int length) {
+        var result = parseFixed(chars, offset, length);
+        if (null != result) {
+            return result;
+        }
+        var offsetDateTime = OffsetDateTime.parse(new String(chars, offset, length));
+        offsetDateTime = offsetDateTime.withOffsetSameInstant(zoneOffset());
+        return offsetDateTime;
+    }
+
     /**
      * ISO 8601 문자열을 Instant 객체로 반환
      * @param iso8601 ISO 8601 문자열
@@ -218,10 +313,72 @@ public class TimeUtils {
      * @return ISO 8601
      */
     public static String print(OffsetDateTime offsetDateTime) {
+        var chars = new char[ISO8601_PRINT_LENGTH];
+        var length = print(offsetDateTime, chars, 0);
+        if (0 <= length) {
+            return new String(chars, 0, length);
+        }
         var target = offsetDateTime.withOffsetSameInstant(zoneOffset());
         return target.format(ISO8601_PRINT_FORMATTER);
     }
 
+    /**
+     * OffsetDateTime을 기본 ZoneOffset 기준 ISO 8601 포맷으로 char 배열에 출력 (ISO8601_PRINT_FORMATTER와 동일한 결과)
+     * 연도가 0 ~ 9999 범위가 아니거나 기본 ZoneOffset에 초 단위가 있으면 출력하지 않음
+     * @param offsetDateTime OffsetDateTime
+     * @param chars 출력할 char 배열, offset 이후 ISO8601_PRINT_LENGTH 이상의 공간 필요
+     * @param offset 출력 시작 위치
+     * @return 출력한 길이, 고정 포맷으로 출력할 수 없으면 -1
+     */
+    public static int print(OffsetDateTime offsetDateTime, char[] chars, int offset) {
+        var offsetSeconds = zoneOffset().getTotalSeconds();
+        if (0 != offsetSeconds % 60) {
+            return -1;
+        }
+        var localSecond = offsetDateTime.toEpochSecond() + offsetSeconds;
+        var epochDay = Math.floorDiv(localSecond, SecondsPerDay);
+        var secondOfDay = (int) Math.floorMod(localSecond, SecondsPerDay);
+
+        // epochDay -> 연, 월, 일 (3월 시작 400년 주기로 계산)
+        var days = epochDay + DaysZeroToEpoch;
+        var era = Math.floorDiv(days, DaysPerEra);
+        var dayOfEra = days - era*DaysPerEra;
+        var yearOfEra = (dayOfEra - dayOfEra/1460 + dayOfEra/36524 - dayOfEra/146096)/365;
+        var dayOfYear = dayOfEra - (365*yearOfEra + yearOfEra/4 - yearOfEra/100);
+        var monthIndex = (5*dayOfYear + 2)/153;
+        var day = (int) (dayOfYear - (153*monthIndex + 2)/5 + 1);
+        var month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        var year = yearOfEra + era*400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || 9999 < year) {
+            return -1;
+        }
+
+        var i = offset;
+        i = printDigits(chars, i, (int) year, 4);
+        chars[i++] = '-';
+        i = printDigits(chars, i, month, 2);
+        chars[i++] = '-';
+        i = printDigits(chars, i, day, 2);
+        chars[i++] = 'T';
+        i = printDigits(chars, i, secondOfDay/3600, 2);
+        chars[i++] = ':';
+        i = printDigits(chars, i, secondOfDay/60%60, 2);
+        chars[i++] = ':';
+        i = printDigits(chars, i, secondOfDay%60, 2);
+        chars[i++] = '.';
+        i = printDigits(chars, i, offsetDateTime.getNano()/1000000, 3);
+        if (0 == offsetSeconds) {
+            chars[i++] = 'Z';
+        } else {
+            var offsetMinutes = Math.abs(offsetSeconds)/60;
+            chars[i++] = offsetSeconds < 0 ? '-' : '+';
+            i = printDigits(chars, i, offsetMinutes/60, 2);
+            chars[i++] = ':';
+            i = printDigits(chars, i, offsetMinutes%60, 2);
+        }
+        return i - offset;
+    }
+
     /**
      * LocalDateTime을 기본 ZoneOffset 기준 ISO 8601 포맷형태로 반환
      * @param localDateTime LocalDateTime
@@ -262,7 +419,7 @@ public class TimeUtils {
      * @return epochMilli
      */
     public static long toEpochMilli(OffsetDateTime offsetDateTime) {
-        return offsetDateTime.toInstant().toEpochMilli();
+        return Math.addExact(Math.multiplyExact(offsetDateTime.toEpochSecond(), 1000L), offsetDateTime.getNano()/1000000);
     }
 
     /**
@@ -279,6 +436,38 @@ public class TimeUtils {
 
     //// (s) Start, End
 
+    /**
+     * 오늘 0시 0분 0초 0나노
+     * @return startOfDay(now())
+     */
+    public static OffsetDateTime startOfDay() {
+        return startOfDay(now());
+    }
+
+    /**
+     * 오늘 23시 59분 59초 999000000나노
+     * @return endOfDay(now())
+     */
+    public static OffsetDateTime endOfDay() {
+        return endOfDay(now());
+    }
+
+    /**
+     * 이번 달 1일 0시 0분 0초 0나노
+     * @return startOfMonth(now())
+     */
+    public static OffsetDateTime startOfMonth() {
+        return startOfMonth(now());
+    }
+
+    /**
+     * 이번 달 마지막일 23시 59분 59초 999000000나노
+     * @return endOfMonth(now())
+     */
+    public static OffsetDateTime endOfMonth() {
+        return endOfMonth(now());
+    }
+
     /**
      * LocalTime이 0시 0분 0초 0나노로 설정된 OffsetDateTime 반환
      * @param offsetDateTime OffsetDateTime
@@ -347,4 +536,125 @@ public class TimeUtils {
 
     //// (e) Start, End
 
+    //// (s) fixed layout
+
+    /**
+     * yyyy-MM-ddTHH:mm:ss[.S~SSSSSSSSS](Z|+HH:mm) 고정 포맷 파싱
+     * DateTimeFormatter를 거치지 않고 숫자를 바로 읽어 epochSecond로 계산
+     * @return 기본 ZoneOffset 기준 OffsetDateTime, 고정 포맷이 아니거나 범위를 벗어나면 null
+     */
+    private static OffsetDateTime parseFixed(char[] chars, int offset, int length) {
+        // yyyy-MM-ddTHH:mm:ssZ
+        if (length < 20 || chars.length < offset + length) {
+            return null;
+        }
+        var c = chars;
+        var o = offset;
+        if (c[o + 4] != '-' || c[o + 7] != '-' || c[o + 10] != 'T' || c[o + 13] != ':' || c[o + 16] != ':') {
+            return null;
+        }
+        var year = readDigits(c, o, 4);
+        var month = readDigits(c, o + 5, 2);
+        var day = readDigits(c, o + 8, 2);
+        var hour = readDigits(c, o + 11, 2);
+        var minute = readDigits(c, o + 14, 2);
+        var second = readDigits(c, o + 17, 2);
+        if (year < 0 || month < 1 || 12 < month || day < 1 || hour < 0 || 23 < hour
+                || minute < 0 || 59 < minute || second < 0 || 59 < second) {
+            return null;
+        }
+        if (Month.of(month).length(Year.isLeap(year)) < day) {
+            return null;
+        }
+
+        var end = o + length;
+        var i = o + 19;
+        var nano = 0;
+        if (c[i] == '.') {
+            var digits = 0;
+            i++;
+            while (i < end && digits < 9 && '0' <= c[i] && c[i] <= '9') {
+                nano = nano*10 + (c[i] - '0');
+                digits++;
+                i++;
+            }
+            if (0 == digits) {
+                return null;
+            }
+            for (int k = digits; k < 9; k++) {
+                nano *= 10;
+            }
+        }
+
+        int offsetSeconds;
+        if (i + 1 == end && c[i] == 'Z') {
+            offsetSeconds = 0;
+        } else if (i + 6 == end && (c[i] == '+' || c[i] == '-') && c[i + 3] == ':') {
+            var offsetHour = readDigits(c, i + 1, 2);
+            var offsetMinute = readDigits(c, i + 4, 2);
+            if (offsetHour < 0 || offsetMinute < 0 || 59 < offsetMinute || 18*60 < offsetHour*60 + offsetMinute) {
+                return null;
+            }
+            offsetSeconds = (offsetHour*3600 + offsetMinute*60)*(c[i] == '-' ? -1 : 1);
+        } else {
+            return null;
+        }
+
+        var epochSecond = toEpochDay(year, month, day)*SecondsPerDay
+                + hour*3600 + minute*60 + second - offsetSeconds;
+        return ofEpochSecond(epochSecond, nano);
+    }
+
+    /**
+     * epochSecond, nano를 기본 ZoneOffset 기준의 OffsetDateTime으로 변환 (Instant 생성 없이 계산)
+     */
+    private static OffsetDateTime ofEpochSecond(long epochSecond, int nano) {
+        var localSecond = epochSecond + zoneOffset().getTotalSeconds();
+        var localDate = LocalDate.ofEpochDay(Math.floorDiv(localSecond, SecondsPerDay));
+        var localTime = LocalTime.ofNanoOfDay(Math.floorMod(localSecond, SecondsPerDay)*1000000000L + nano);
+        return OffsetDateTime.of(localDate, localTime, zoneOffset());
+    }
+
+    /**
+     * 연, 월, 일의 epochDay 계산 (3월 시작 400년 주기로 계산)
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        var era = Math.floorDiv(y, 400);
+        var yearOfEra = y - era*400;
+        var dayOfYear = (153*(month + (month > 2 ? -3 : 9)) + 2)/5 + day - 1;
+        var dayOfEra = yearOfEra*365 + yearOfEra/4 - yearOfEra/100 + dayOfYear;
+        return era*DaysPerEra + dayOfEra - DaysZeroToEpoch;
+    }
+
+    /**
+     * 고정 자리수 숫자 읽기
+     * @return 숫자 값, 숫자가 아닌 문자가 있으면 -1
+     */
+    private static int readDigits(char[] chars, int offset, int count) {
+        var value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            var c = chars[i];
+            if (c < '0' || '9' < c) {
+                return -1;
+            }
+            value = value*10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * 고정 자리수 숫자 출력 (앞자리 0 채움)
+     * @return 출력 후 위치
+     */
+    private static int printDigits(char[] chars, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value%10);
+            value /= 10;
+        }
+        return offset + count;
+    }
+
+    //// (e) fixed layout
+
 }
@@ -0,0 +1,28 @@
+package com.moss.javatest.shared.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction 관련 Util 모음
+ */
+public class TransactionUtils {
+    /**
+     * 현재 Transaction이 commit 된 후 실행
+     * Transaction이 없으면 바로 실행
+     * 메모리 캐시, 색인 등을 rollback 된 데이터로 갱신하지 않기 위해 사용
+     * @param action 실행할 작업
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
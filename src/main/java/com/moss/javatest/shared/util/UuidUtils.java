@@ -0,0 +1,58 @@
+package com.moss.javatest.shared.util;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUID 관련 Util 모음
+ */
+public class UuidUtils {
+    // UUID 바이트 길이
+    public static final int ByteLength = 16;
+
+    // 마지막으로 발급한 (unix ms(48bit) << 12 | sequence(12bit))
+    private static final AtomicLong LastTimestamp = new AtomicLong();
+
+    /**
+     * 시간순 UUID 생성 (UUIDv7 형식)
+     * 상위 48bit는 unix ms, 다음 12bit는 같은 ms 내 순번이므로 한 JVM 안에서는 항상 증가
+     * 같은 ms에 4096개를 넘으면 다음 ms를 미리 사용 (lock 없이 CAS로 발급)
+     * @return 시간순 UUID
+     */
+    public static UUID timeOrdered() {
+        final long now = System.currentTimeMillis() << 12;
+        long timestamp = LastTimestamp.updateAndGet(last -> Math.max(last + 1, now));
+        long random = ThreadLocalRandom.current().nextLong();
+        long msb = ((timestamp >>> 12) << 16) | 0x7000L | (timestamp & 0xFFFL);
+        long lsb = (random & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * UUID를 16 byte로 변환
+     * byte 순서로 비교하면 문자열(소문자) 순서와 같다.
+     * @param uuid UUID
+     * @return 16 byte
+     */
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(ByteLength)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * 16 byte를 UUID로 변환
+     * @param bytes 16 byte
+     * @return UUID
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        if (ByteLength != bytes.length) {
+            throw new IllegalArgumentException("uuid must be " + ByteLength + " bytes. (" + bytes.length + ")");
+        }
+        var buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,71 @@
+package com.moss.javatest.book.infrastructure.cache
+
+import com.moss.javatest.book.dto.category.CategoryDto
+import com.moss.javatest.shared.infrastructure.SharedObjectMapper
+import com.moss.javatest.shared.util.ElapsedTime
+import org.springframework.http.MediaType
+import spock.lang.Specification
+
+class CategorySnapshotTest extends Specification {
+    static final MediaType Smile = MediaType.valueOf(SharedObjectMapper.APPLICATION_SMILE_VALUE)
+
+    CategorySnapshot snapshot
+
+    def setup() {
+        var category = new CategoryDto()
+        category.id = 1
+        category.name = "소설"
+        var objectMappers = new LinkedHashMap<MediaType, SharedObjectMapper>()
+        objectMappers.put(MediaType.APPLICATION_JSON, new SharedObjectMapper())
+        objectMappers.put(MediaType.APPLICATION_CBOR, SharedObjectMapper.cbor())
+        objectMappers.put(Smile, SharedObjectMapper.smile())
+        snapshot = CategorySnapshot.of(1, [category], objectMappers)
+    }
+
+    def "Accept에 맞는 형식 선택"() {
+        expect:
+        expected == snapshot.body(MediaType.parseMediaTypes(accept))?.mediaType
+
+        where:
+        accept                                                  | expected
+        ""                                                      | MediaType.APPLICATION_JSON
+        "*/*"                                                   | MediaType.APPLICATION_JSON
+        "application/cbor"                                      | MediaType.APPLICATION_CBOR
+        "application/json;q=0.5, application/x-jackson-smile"   | Smile
+        "application/*;q=0.8, application/cbor"                 | MediaType.APPLICATION_CBOR
+        "application/cbor;q=0, application/*"                   | MediaType.APPLICATION_JSON
+        "text/html"                                             | null
+    }
+
+    def "형식마다 다른 본문, 다른 ETag"() {
+        when:
+        var json = snapshot.body([MediaType.APPLICATION_JSON])
+        var cbor = snapshot.body([MediaType.APPLICATION_CBOR])
+
+        then:
+        "[{\"id\":1,\"name\":\"소설\"}]" == new String(json.content, "UTF-8")
+        json.etag != cbor.etag
+        SharedObjectMapper.cbor().readTree(cbor.content) == new SharedObjectMapper().readTree(json.content)
+    }
+
+    def "미리 변환한 본문 선택은 요청마다 변환하는 것보다 짧음"() {
+        given:
+        var categories = (1..200).collect {
+            var category = new CategoryDto()
+            category.id = it
+            category.name = "분류 " + it
+            category
+        }
+        var objectMapper = new SharedObjectMapper()
+        var snapshot = CategorySnapshot.of(1, categories, [(MediaType.APPLICATION_JSON): objectMapper])
+        var accepts = MediaType.parseMediaTypes("application/json")
+
+        when:
+        var cached = ElapsedTime.nanos(2_000, { snapshot.body(accepts).content })
+        var serialized = ElapsedTime.nanos(2_000, { objectMapper.writeValueAsBytes(categories) })
+
+        then:
+        snapshot.body(accepts).content == objectMapper.writeValueAsBytes(categories)
+        cached < serialized
+    }
+}
@@ -0,0 +1,66 @@
+package com.moss.javatest.book.infrastructure.facet
+
+import com.moss.javatest.book.domain.code.BookType
+import com.moss.javatest.book.domain.repository.BookRepository
+import com.moss.javatest.book.dto.book.BookFacetCount
+import com.moss.javatest.book.dto.book.BooksQuery
+import org.springframework.transaction.PlatformTransactionManager
+import spock.lang.Specification
+
+class BookFacetCounterTest extends Specification {
+    private BookRepository repository = Mock()
+
+    private BookFacetCounter counter = new BookFacetCounter(repository, Mock(PlatformTransactionManager))
+
+    private static BookFacetCount facetCount(BookType bookType, Integer categoryId, long count) {
+        return new BookFacetCount(bookType: bookType, categoryId: categoryId, count: count)
+    }
+
+    def "DB GROUP BY 결과로 Counter 재설정"() {
+        given:
+        counter.increment(BookType.Paper, 1)
+        repository.countFacets(_, _) >> [facetCount(BookType.Ebook, 2, 3)]
+
+        when:
+        counter.reconcile()
+        var facets = counter.count(new BooksQuery())
+
+        then:
+        [(BookType.Ebook): 3L] == facets.bookTypes
+        [2: 3L] == facets.categories
+    }
+
+    def "맞추는 중 증감이 있으면 맞춘 결과를 버리고 다시 조회"() {
+        given:
+        int calls = 0
+        repository.countFacets(_, _) >> {
+            if (0 == calls++) {
+                // 조회 중 commit 된 추가 (GROUP BY 결과에 포함되었는지 알 수 없음)
+                counter.increment(BookType.Paper, 1)
+            }
+            return [facetCount(BookType.Paper, 1, 5)]
+        }
+
+        when:
+        counter.reconcile()
+
+        then:
+        2 == calls
+        [(BookType.Paper): 5L] == counter.count(new BooksQuery()).bookTypes
+    }
+
+    def "계속 증감이 있으면 이전 Counter 유지"() {
+        given:
+        counter.increment(BookType.Paper, 1)
+        repository.countFacets(_, _) >> {
+            counter.increment(BookType.Paper, 1)
+            return [facetCount(BookType.Paper, 1, 100)]
+        }
+
+        when:
+        counter.reconcile()
+
+        then:
+        [(BookType.Paper): 4L] == counter.count(new BooksQuery()).bookTypes
+    }
+}
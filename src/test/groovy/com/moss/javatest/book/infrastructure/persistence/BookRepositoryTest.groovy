@@ -0,0 +1,82 @@
+package com.moss.javatest.book.infrastructure.persistence
+
+import com.moss.javatest.book.domain.code.BookType
+import com.moss.javatest.book.domain.model.Book
+import com.moss.javatest.book.domain.model.BookId
+import com.moss.javatest.book.domain.model.CategoryId
+import com.moss.javatest.book.domain.repository.BookRepository
+import com.moss.javatest.shared.util.TimeUtils
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.transaction.annotation.Transactional
+import spock.lang.Specification
+
+import javax.persistence.EntityManager
+import java.time.OffsetDateTime
+import java.time.temporal.ChronoUnit
+
+/**
+ * 책 Repository (H2) 저장, 조회
+ */
+@SpringBootTest
+@Transactional
+class BookRepositoryTest extends Specification {
+    @Autowired
+    private BookRepository repository
+
+    @Autowired
+    private EntityManager entityManager
+
+    private static Book book(BookId id, OffsetDateTime published) {
+        return Book.builder()
+                .id(id)
+                .categoryId(CategoryId.of(1))
+                .bookType(BookType.Paper)
+                .title("출간일")
+                .author("작가")
+                .published(published)
+                .build()
+    }
+
+    def "출간일은 save, findDto, modify 모두 같은 Instant로 저장, 조회"() {
+        given:
+        var id = repository.newIdentity()
+        var published = OffsetDateTime.parse(text)
+
+        when:
+        repository.save(book(id, published))
+        repository.flush()
+        entityManager.clear()
+
+        then:
+        published.toInstant() == repository.findDto(id.id, ["published"]).published.toInstant()
+        published.toInstant() == repository.findById(id).get().published.toInstant()
+        TimeUtils.zoneOffset() == repository.findDto(id.id, ["published"]).published.offset
+
+        when: "millis 미만 값은 저장하지 않음"
+        var modified = published.plusYears(1).plusNanos(456_789)
+        repository.modify(book(id, modified))
+        entityManager.clear()
+
+        then:
+        modified.toInstant().truncatedTo(ChronoUnit.MILLIS) == repository.findDto(id.id, ["published"]).published.toInstant()
+        modified.toInstant().truncatedTo(ChronoUnit.MILLIS) == repository.findById(id).get().published.toInstant()
+
+        where: "DST 적용 지역 offset, 1970년 이전 포함"
+        text << ["2021-03-28T01:30:00.123+01:00", "2021-10-31T02:30:00.999+02:00", "1965-07-01T12:00:00.001-05:00"]
+    }
+
+    def "출간일이 없으면 null로 저장, 조회"() {
+        given:
+        var id = repository.newIdentity()
+
+        when:
+        repository.save(book(id, null))
+        repository.modify(book(id, null))
+        entityManager.clear()
+
+        then:
+        null == repository.findDto(id.id, ["published"]).published
+        null == repository.findById(id).get().published
+    }
+}
@@ -0,0 +1,135 @@
+package com.moss.javatest.book.service
+
+import com.moss.javatest.book.domain.code.BookType
+import com.moss.javatest.book.dto.book.AddBookCommand
+import com.moss.javatest.book.dto.book.BooksQuery
+import com.moss.javatest.book.dto.book.UpdateBookCommand
+import com.moss.javatest.book.dto.category.AddCategoryCommand
+import com.moss.javatest.shared.infrastructure.jpa.StatementCounter
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import spock.lang.Specification
+
+/**
+ * 책 서비스 작업별 허용 SQL 문 수
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.moss.javatest.shared.infrastructure.jpa.StatementCounter")
+class BookServiceStatementTest extends Specification {
+    @Autowired
+    private BookService service
+
+    @Autowired
+    private CategoryService categoryService
+
+    private StatementCounter counter
+
+    private Integer categoryId
+
+    def setup() {
+        counter = new StatementCounter()
+        categoryId = categoryService.add(new AddCategoryCommand(name: "분류")).id
+    }
+
+    private AddBookCommand addCommand(String title) {
+        return new AddBookCommand(bookType: BookType.Paper, categoryId: categoryId, title: title, author: "작가")
+    }
+
+    def "추가는 INSERT, 분류 책 수 UPDATE 2번 (존재여부, 분류 확인 SELECT 없음)"() {
+        expect:
+        2 == counter.count { service.add(addCommand("추가")) }
+    }
+
+    def "일괄 추가는 묶음당 batch INSERT, 분류 책 수 UPDATE 2번"() {
+        given:
+        var commands = (1..10).collect { addCommand("일괄 추가 " + it) }
+
+        expect:
+        2 == counter.count { service.addAll(commands.iterator()) }
+    }
+
+    def "조회는 SELECT 1번"() {
+        given:
+        var id = service.add(addCommand("조회")).id
+
+        expect:
+        1 == counter.count { service.get(id) }
+        1 == counter.count { service.get(id, ["id", "title"]) }
+    }
+
+    def "여러 책 조회는 IN 묶음당 SELECT 1번, 요청 순서로 반환하고 없는 Id는 따로 반환"() {
+        given:
+        var ids = (1..3).collect { service.add(addCommand("여러 책 " + it)).id }
+        var missingId = UUID.randomUUID().toString()
+
+        when:
+        var result = null
+        var count = counter.count {
+            result = service.getAll([ids[2], missingId, ids[0], ids[2], "invalid", ids[1]], null)
+        }
+
+        then:
+        1 == count
+        [ids[2], ids[0], ids[1]] == result.items*.id
+        [missingId, "invalid"] == result.missing
+    }
+
+    def "목록 조회는 SELECT 1번, 캐시 적중시 0번"() {
+        given:
+        var query = new BooksQuery(categoryId: categoryId)
+
+        expect:
+        1 == counter.count { service.list(query) }
+        0 == counter.count { service.list(query) }
+    }
+
+    def "분류 이름 확장 목록 조회는 행 수와 무관하게 페이지당 SELECT 1번"() {
+        given:
+        (1..3).each { service.add(addCommand("확장 " + it)) }
+        var query = new BooksQuery(categoryId: categoryId, size: 1, expand: ["category"])
+        var pages = 0
+
+        when:
+        var count = counter.count {
+            while (true) {
+                var page = service.list(query)
+                pages++
+                if (null == page.next) {
+                    break
+                }
+                query = new BooksQuery(categoryId: categoryId, size: 1, expand: ["category"], cursor: page.next)
+            }
+        }
+
+        then:
+        3 == pages
+        3 == count
+    }
+
+    def "분류 이름 확장 목록과 확장 없는 목록은 같은 캐시 항목 사용"() {
+        given:
+        service.add(addCommand("확장 캐시"))
+
+        expect:
+        1 == counter.count { service.list(new BooksQuery(categoryId: categoryId, expand: ["category"])) }
+        0 == counter.count { assert null == service.list(new BooksQuery(categoryId: categoryId)).items[0].categoryName }
+    }
+
+    def "수정은 색인의 이전 값을 조건으로 UPDATE 1번"() {
+        given:
+        var id = service.add(addCommand("수정")).id
+
+        expect:
+        1 == counter.count {
+            service.update(new UpdateBookCommand(id: id, categoryId: categoryId, bookType: BookType.Ebook,
+                    title: "수정됨", author: "작가"))
+        }
+    }
+
+    def "삭제는 색인의 이전 값을 조건으로 DELETE 1번, 분류 책 수 UPDATE 1번"() {
+        given:
+        var id = service.add(addCommand("삭제")).id
+
+        expect:
+        2 == counter.count { service.delete(id) }
+    }
+}
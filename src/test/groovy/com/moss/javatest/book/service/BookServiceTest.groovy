@@ -0,0 +1,420 @@
+package com.moss.javatest.book.service
+
+import com.moss.javatest.book.domain.code.BookType
+import com.moss.javatest.book.domain.repository.BookRepository
+import com.moss.javatest.book.domain.repository.CategoryBookCountRepository
+import com.moss.javatest.book.dto.book.AddBookBatchResult
+import com.moss.javatest.book.dto.book.AddBookCommand
+import com.moss.javatest.book.dto.book.BooksQuery
+import com.moss.javatest.book.dto.book.UpdateBookCommand
+import com.moss.javatest.book.dto.category.AddCategoryCommand
+import com.moss.javatest.book.infrastructure.search.BookDocument
+import com.moss.javatest.book.infrastructure.search.BookSearchIndex
+import com.moss.javatest.shared.exception.BadRequestException
+import com.moss.javatest.shared.exception.InvalidBodyException
+import com.moss.javatest.shared.infrastructure.querydsl.KeysetCursor
+import com.moss.javatest.shared.util.ElapsedTime
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+import spock.lang.Specification
+
+/**
+ * 책 서비스 동작
+ */
+@SpringBootTest
+class BookServiceTest extends Specification {
+    @Autowired
+    private BookService service
+
+    @Autowired
+    private CategoryService categoryService
+
+    @Autowired
+    private BookSearchIndex searchIndex
+
+    @Autowired
+    private BookRepository bookRepository
+
+    @Autowired
+    private CategoryBookCountRepository bookCountRepository
+
+    @Autowired
+    private PlatformTransactionManager transactionManager
+
+    @Autowired
+    private MeterRegistry meterRegistry
+
+    private Integer categoryId
+
+    def setup() {
+        categoryId = categoryService.add(new AddCategoryCommand(name: "분류")).id
+    }
+
+    private AddBookCommand addCommand(String title) {
+        return new AddBookCommand(bookType: BookType.Paper, categoryId: categoryId, title: title, author: "작가")
+    }
+
+    def "없는 필드를 요청하면 BadRequestException"() {
+        given:
+        var id = service.add(addCommand("필드")).id
+
+        when:
+        service.get(id, ["title", "unknown"])
+
+        then:
+        thrown(BadRequestException)
+
+        when:
+        service.list(new BooksQuery(categoryId: categoryId, fields: ["unknown"]))
+
+        then:
+        thrown(BadRequestException)
+    }
+
+    def "없는 확장을 요청하면 BadRequestException"() {
+        when:
+        service.list(new BooksQuery(categoryId: categoryId, expand: ["unknown"]))
+
+        then:
+        thrown(BadRequestException)
+    }
+
+    def "빈 값만 있는 필드 목록은 전체 필드"() {
+        given:
+        var id = service.add(addCommand("빈 필드")).id
+
+        when:
+        var book = service.get(id, ["", " "])
+        var page = service.list(new BooksQuery(categoryId: categoryId, fields: [""], expand: ["category"]))
+
+        then:
+        "빈 필드" == book.title
+        "작가" == book.author
+        categoryId == book.categoryId
+        "작가" == page.items[0].author
+        categoryId == page.items[0].categoryId
+        "분류" == page.items[0].categoryName
+    }
+
+    def "일괄 추가 중 본문을 읽을 수 없으면 읽은 행까지 추가하고 그 위치에 invalid_body"() {
+        given:
+        var commands = [addCommand("일괄 1"), new AddBookCommand(bookType: BookType.Paper, categoryId: -1, title: "일괄 2")]
+        var iterator = new Iterator<AddBookCommand>() {
+            int index = 0
+
+            boolean hasNext() {
+                if (index >= commands.size()) {
+                    throw new InvalidBodyException("invalid body.", null)
+                }
+                return true
+            }
+
+            AddBookCommand next() {
+                return commands[index++]
+            }
+        }
+
+        when:
+        var results = service.addAll(iterator)
+
+        then:
+        [0, 1, 2] == results*.index
+        null != results[0].id && null == results[0].error
+        AddBookBatchResult.CategoryNotFound == results[1].error
+        AddBookBatchResult.InvalidBody == results[2].error
+        "일괄 1" == service.get(results[0].id).title
+    }
+
+    def "UUID 형식이 아닌 Id는 없는 책"() {
+        expect:
+        null == service.get(id)
+        null == service.get(id, ["title"])
+
+        when:
+        service.update(new UpdateBookCommand(id: id, categoryId: categoryId, title: "없음"))
+
+        then:
+        var e = thrown(RuntimeException)
+        "book is not exist." == e.message
+
+        when:
+        service.delete(id)
+
+        then:
+        e = thrown(RuntimeException)
+        "book is not exist." == e.message
+
+        where:
+        id << ["invalid", "", "1234", "1-1-1-1-1"]
+    }
+
+    def "대문자 Id도 같은 책, 표준 형식이 아닌 Id는 없는 책"() {
+        given:
+        var id = service.add(addCommand("대문자 Id")).id
+        var upper = id.toUpperCase(Locale.ROOT)
+        // UUID.fromString은 받지만 표준 형식이 아닌 Id
+        var nonCanonical = "1-1-1-1-1"
+
+        expect:
+        id == service.get(upper).id
+        id == service.get(upper, ["id"]).id
+        [id] == service.getAll([upper, nonCanonical], null).items*.id
+        [nonCanonical] == service.getAll([upper, nonCanonical], null).missing
+
+        when:
+        service.update(new UpdateBookCommand(id: upper, categoryId: categoryId, bookType: BookType.Paper,
+                title: "대문자 Id 수정", author: "작가"))
+        service.delete(upper)
+
+        then:
+        null == service.get(id)
+        null == searchIndex.get(id)
+    }
+
+    def "잘못된 커서는 BadRequestException"() {
+        when:
+        service.list(new BooksQuery(categoryId: categoryId, cursor: cursor))
+
+        then:
+        thrown(BadRequestException)
+
+        where:
+        cursor << ["invalid", KeysetCursor.encode("제목", "invalid")]
+    }
+
+    def "같은 조건 형태의 목록 조회는 저장된 JPQL에 새 값을 바인딩"() {
+        given:
+        var otherCategoryId = categoryService.add(new AddCategoryCommand(name: "형태")).id
+        var first = service.add(addCommand("형태 A")).id
+        var second = service.add(new AddBookCommand(bookType: BookType.Ebook, categoryId: otherCategoryId,
+                title: "형태 B", author: "작가")).id
+        // 다른 테스트에서 사용하지 않는 필드 조합 (새 조건 형태)
+        var fields = ["author", "bookType"]
+        var hits = meterRegistry.get("book.list.plan.cache.hits").functionCounter()
+        var misses = meterRegistry.get("book.list.plan.cache.misses").functionCounter()
+        var hitCount = hits.count()
+        var missCount = misses.count()
+
+        when:
+        var firstPage = service.list(new BooksQuery(categoryId: categoryId, bookTypes: [BookType.Paper], fields: fields + ["id"]))
+        var secondPage = service.list(new BooksQuery(categoryId: otherCategoryId, bookTypes: [BookType.Ebook], fields: fields + ["id"]))
+        var emptyPage = service.list(new BooksQuery(categoryId: otherCategoryId, bookTypes: [BookType.Paper], fields: fields + ["id"]))
+
+        then:
+        [first] == firstPage.items*.id
+        [second] == secondPage.items*.id
+        [] == emptyPage.items
+        missCount + 1 == misses.count()
+        hitCount + 2 == hits.count()
+    }
+
+    def "내보내기, Facet 조회도 목록과 같은 필터 조건"() {
+        given:
+        var first = service.add(addCommand("필터 A")).id
+        service.add(new AddBookCommand(bookType: BookType.Ebook, categoryId: categoryId, title: "필터 B", author: "작가"))
+        var exported = []
+
+        when:
+        service.export(new BooksQuery(categoryId: categoryId, bookTypes: [BookType.Paper]), { exported.add(it.id) })
+        var facets = service.facets(new BooksQuery(categoryId: categoryId, keyword: "필터"))
+
+        then:
+        [first] == exported
+        [(BookType.Paper): 1L, (BookType.Ebook): 1L] == facets.bookTypes
+        [(categoryId): 2L] == facets.categories
+    }
+
+    def "분류 이름 확장 목록 조회는 모든 페이지에 분류 이름을 채우고 요청하지 않은 categoryId는 제외"() {
+        given:
+        var category = categoryService.add(new AddCategoryCommand(name: "확장 분류")).id
+        var commands = (1..10000).collect {
+            new AddBookCommand(bookType: BookType.Paper, categoryId: category, title: "확장 " + it, author: "작가")
+        }
+        service.addAll(commands.iterator())
+        var query = new BooksQuery(categoryId: category, size: 100, expand: ["category"], fields: ["title"])
+        var books = []
+
+        when:
+        while (true) {
+            var page = service.list(query)
+            books.addAll(page.items)
+            if (null == page.next) {
+                break
+            }
+            query = new BooksQuery(categoryId: category, size: 100, expand: ["category"], fields: ["title"],
+                    cursor: page.next)
+        }
+
+        then:
+        10000 == books.size()
+        books.every { it.categoryName == "확장 분류" && null == it.categoryId }
+    }
+
+    def "없는 책 수정, 삭제는 book is not exist"() {
+        given:
+        var id = UUID.randomUUID().toString()
+
+        when:
+        service.delete(id)
+
+        then:
+        var e = thrown(RuntimeException)
+        "book is not exist." == e.message
+
+        when:
+        service.update(new UpdateBookCommand(id: id, categoryId: categoryId, title: "없음"))
+
+        then:
+        e = thrown(RuntimeException)
+        "book is not exist." == e.message
+    }
+
+    def "없는 분류로 수정하면 category is not exist, 수정은 rollback"() {
+        given:
+        var id = service.add(addCommand("분류 없음")).id
+
+        when:
+        service.update(new UpdateBookCommand(id: id, categoryId: -1, title: "수정됨"))
+
+        then:
+        var e = thrown(RuntimeException)
+        "category is not exist." == e.message
+        "분류 없음" == service.get(id).title
+    }
+
+    def "책 추가, 분류 이동, 삭제가 분류별 책 수에 반영되고 책이 있는 분류는 삭제 불가"() {
+        given:
+        var otherCategoryId = categoryService.add(new AddCategoryCommand(name: "다른 분류")).id
+        var id = service.add(addCommand("분류 이동")).id
+        service.addAll([addCommand("일괄 1"), addCommand("일괄 2")].iterator())
+
+        expect:
+        3L == categoryService.get(categoryId).bookCount
+        3L == categoryService.bookCounts()[categoryId]
+        null == categoryService.list().find { it.id == categoryId }.bookCount
+
+        when:
+        categoryService.delete(categoryId)
+
+        then:
+        var e = thrown(RuntimeException)
+        "category is in use." == e.message
+
+        when:
+        service.update(new UpdateBookCommand(id: id, categoryId: otherCategoryId, bookType: BookType.Paper,
+                title: "분류 이동", author: "작가"))
+
+        then:
+        2L == categoryService.get(categoryId).bookCount
+        1L == categoryService.get(otherCategoryId).bookCount
+        2L == categoryService.bookCounts()[categoryId]
+        1L == categoryService.bookCounts()[otherCategoryId]
+
+        when:
+        service.delete(id)
+        categoryService.delete(otherCategoryId)
+
+        then:
+        !categoryService.exist(otherCategoryId)
+        null == categoryService.list().find { it.id == otherCategoryId }
+    }
+
+    def "색인 값이 DB와 다르면 행 잠금으로 이전 값을 다시 읽어 수정, 삭제"() {
+        given:
+        var otherCategoryId = categoryService.add(new AddCategoryCommand(name: "색인 다름")).id
+        var id = service.add(addCommand("색인 다름")).id
+        // 다른 인스턴스의 변경 등으로 색인이 DB와 다른 경우
+        searchIndex.put(BookDocument.of(id, "색인 다름", "작가", BookType.Paper, otherCategoryId))
+
+        when:
+        service.update(new UpdateBookCommand(id: id, categoryId: otherCategoryId, bookType: BookType.Paper,
+                title: "색인 다름", author: "작가"))
+
+        then:
+        0L == categoryService.get(categoryId).bookCount
+        1L == categoryService.get(otherCategoryId).bookCount
+        otherCategoryId == searchIndex.get(id).categoryId
+
+        when:
+        searchIndex.put(BookDocument.of(id, "색인 다름", "작가", BookType.Paper, categoryId))
+        service.delete(id)
+
+        then:
+        null == service.get(id)
+        0L == categoryService.get(otherCategoryId).bookCount
+        null == searchIndex.get(id)
+    }
+
+    def "책 수 행이 없는 분류는 책 쓰기, 분류 삭제시 책 테이블에서 세어 행을 만듦"() {
+        given: "책 수 행 도입 전에 추가된 분류"
+        var transactionTemplate = new TransactionTemplate(transactionManager)
+        (1..2).each { service.add(addCommand("행 없음 " + it)) }
+        transactionTemplate.executeWithoutResult { bookCountRepository.deleteByCategoryId(categoryId) }
+
+        when:
+        service.add(addCommand("행 없음 3"))
+
+        then:
+        3L == categoryService.get(categoryId).bookCount
+
+        when:
+        transactionTemplate.executeWithoutResult { bookCountRepository.deleteByCategoryId(categoryId) }
+        categoryService.delete(categoryId)
+
+        then:
+        var e = thrown(RuntimeException)
+        "category is in use." == e.message
+        categoryService.exist(categoryId)
+    }
+
+    def "keyword는 색인, LIKE 모두 대소문자 무시, %와 _는 문자 그대로 검색"() {
+        given:
+        ["100% Cotton", "100 Cotton", "a_b", "axb"].each { service.add(addCommand(it)) }
+
+        expect:
+        var query = new BooksQuery(categoryId: categoryId, keyword: keyword)
+        // 색인 결과
+        titles == service.list(query).items*.title as Set
+        // 색인을 사용하지 않는 경우 (결과가 CandidateLimit 초과, 색인 생성 전)
+        titles == bookRepository.findAll(query, null).items*.title as Set
+
+        where:
+        keyword  | titles
+        "100%"   | ["100% Cotton"] as Set
+        "COTTON" | ["100% Cotton", "100 Cotton"] as Set
+        "a_b"    | ["a_b"] as Set
+        "!"      | [] as Set
+    }
+
+    def "목록 조회 결과를 변경해도 캐시된 결과는 그대로"() {
+        given:
+        service.add(addCommand("캐시 복사"))
+        var query = new BooksQuery(categoryId: categoryId)
+
+        when:
+        var first = service.list(query)
+        first.items[0].title = "변경"
+
+        then:
+        var second = service.list(query)
+        1 == second.items.size()
+        "캐시 복사" == second.items[0].title
+    }
+
+    def "같은 목록 반복 조회는 DB 조회보다 짧음"() {
+        given:
+        (1..20).each { service.add(addCommand("반복 " + it)) }
+        var query = new BooksQuery(categoryId: categoryId)
+
+        when:
+        var cached = ElapsedTime.nanos(500, { service.list(query) })
+        var queried = ElapsedTime.nanos(500, { bookRepository.findAll(query, null) })
+
+        then:
+        service.list(query).items*.id == bookRepository.findAll(query, null).items*.id
+        cached < queried
+    }
+}
@@ -0,0 +1,132 @@
+package com.moss.javatest.book.service
+
+import com.moss.javatest.book.dto.category.AddCategoryCommand
+import com.moss.javatest.book.dto.category.UpdateCategoryCommand
+import com.moss.javatest.shared.infrastructure.jpa.StatementCounter
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import spock.lang.Specification
+
+/**
+ * 분류 서비스 작업별 허용 SQL 문 수
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.moss.javatest.shared.infrastructure.jpa.StatementCounter")
+class CategoryServiceStatementTest extends Specification {
+    @Autowired
+    private CategoryService service
+
+    @Autowired
+    private MeterRegistry meterRegistry
+
+    private StatementCounter counter
+
+    def setup() {
+        counter = new StatementCounter()
+    }
+
+    def "추가는 분류 INSERT, 책 수 행 batch INSERT, commit 후 Snapshot SELECT로 3번"() {
+        expect:
+        3 == counter.count { service.add(new AddCategoryCommand(name: "추가")) }
+    }
+
+    def "조회는 분류, 책 수 SELECT 2번, 목록 조회는 Snapshot 사용으로 0번, 분류별 책 수는 SELECT 1번"() {
+        given:
+        var id = service.add(new AddCategoryCommand(name: "조회")).id
+
+        expect:
+        2 == counter.count { service.get(id) }
+        0 == counter.count { service.list() }
+        1 == counter.count { assert 0L == service.bookCounts()[id] }
+    }
+
+    def "여러 분류 조회는 Snapshot 사용으로 0번, 요청 순서로 반환하고 없는 Id는 따로 반환"() {
+        given:
+        var first = service.add(new AddCategoryCommand(name: "첫번째")).id
+        var second = service.add(new AddCategoryCommand(name: "두번째")).id
+
+        when:
+        var result = null
+        var count = counter.count { result = service.getAll([second, -1, first, second]) }
+
+        then:
+        0 == count
+        [second, first] == result.items*.id
+        [-1] == result.missing
+    }
+
+    def "변경이 commit 되면 새 Snapshot, 변경이 없으면 같은 Snapshot"() {
+        given:
+        var before = service.snapshot()
+
+        when:
+        var id = service.add(new AddCategoryCommand(name: "Snapshot")).id
+        var after = service.snapshot()
+
+        then:
+        after.version > before.version
+        after.body([]).etag != before.body([]).etag
+        after.categories.any { it.id == id }
+        after.is(service.snapshot())
+    }
+
+    def "존재 확인은 메모리 Id 집합에 있으면 0번, 없으면 SELECT 1번"() {
+        given:
+        var id = service.add(new AddCategoryCommand(name: "존재 확인")).id
+        var batchSizes = meterRegistry.summary("category.exist.batch.size")
+
+        expect:
+        0 == counter.count { service.exist(id) }
+        0 == counter.count { service.existIds([id]) }
+        1 == counter.count { service.existIds([id, -1]) }
+
+        when: "단건 존재 확인은 BatchLoader Thread에서 IN 쿼리로 조회"
+        var batches = batchSizes.count()
+        var count = counter.count { assert !service.exist(-1) }
+
+        then:
+        0 == count
+        batches + 1 == batchSizes.count()
+    }
+
+    def "삭제된 분류는 존재하지 않음"() {
+        given:
+        var id = service.add(new AddCategoryCommand(name: "삭제 확인")).id
+
+        when:
+        service.delete(id)
+
+        then:
+        !service.exist(id)
+    }
+
+    def "수정은 SELECT, UPDATE, commit 후 Snapshot SELECT로 3번"() {
+        given:
+        var id = service.add(new AddCategoryCommand(name: "수정")).id
+
+        expect:
+        3 == counter.count { service.update(new UpdateCategoryCommand(id: id, name: "수정됨")) }
+    }
+
+    def "삭제는 SELECT, 책 수 행 잠금 SELECT, 책 수 행 DELETE, DELETE, commit 후 Snapshot SELECT로 5번"() {
+        given:
+        var id = service.add(new AddCategoryCommand(name: "삭제")).id
+
+        expect:
+        5 == counter.count { service.delete(id) }
+    }
+
+    def "책 추가, 삭제로는 Snapshot을 다시 만들지 않음"() {
+        given:
+        var id = service.add(new AddCategoryCommand(name: "책 수")).id
+        var before = service.snapshot()
+
+        when:
+        service.addBookCounts([(id): 1L])
+
+        then:
+        before.is(service.snapshot())
+        0 == counter.count { service.list() }
+        1L == service.bookCounts()[id]
+    }
+}
@@ -1,5 +1,6 @@
 package com.moss.javatest.shared.dto
 
+import org.hibernate.proxy.HibernateProxy
 import spock.lang.Specification
 
 import java.time.Instant
@@ -272,4 +273,76 @@ class DtoAssemblerTest extends Specification {
         b2 == model2.getB()
         now2.toEpochSecond() == model2.getTime().toEpochSecond()
     }
+
+    def "List 병렬 to 테스트, 순서 유지"() {
+        given:
+        var models = (0..<size).collect { i ->
+            var model = new SimpleModel()
+            model.setA(i)
+            model.setB("b" + i)
+            return model
+        }
+        var threshold = DtoAssembler.getParallelThreshold()
+        DtoAssembler.setParallelThreshold(100)
+
+        when:
+        List<SimpleDto> dtos = DtoAssembler.toParallel(models, SimpleDto)
+
+        then:
+        size == dtos.size()
+        (0..<size).every { i -> i == dtos.get(i).getA() && "b" + i == dtos.get(i).getB() }
+
+        when:
+        dtos.add(new SimpleDto())
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        cleanup:
+        DtoAssembler.setParallelThreshold(threshold)
+
+        where:
+        size << [10, 5_000]
+    }
+
+    def "List 병렬 to 테스트, Entity는 IllegalArgumentException"() {
+        given:
+        var models = (0..<200).collect { i -> Stub(HibernateProxy) }
+        var threshold = DtoAssembler.getParallelThreshold()
+        DtoAssembler.setParallelThreshold(100)
+
+        when:
+        DtoAssembler.toParallel(models, SimpleDto)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        cleanup:
+        DtoAssembler.setParallelThreshold(threshold)
+    }
+
+    def "List lazy to 테스트, 소비할 때 변환"() {
+        given:
+        var model1 = new SimpleModel()
+        model1.setA(1)
+        var model2 = new SimpleModel()
+        model2.setA(2)
+        var converted = 0
+
+        when:
+        var stream = DtoAssembler.toStream([model1, model2], SimpleDto, (m, d) -> {
+            converted++
+            return d
+        })
+
+        then:
+        0 == converted
+
+        when:
+        List<SimpleDto> dtos = stream.collect(java.util.stream.Collectors.toList())
+
+        then:
+        2 == converted
+        [1, 2] == dtos*.a
+    }
 }
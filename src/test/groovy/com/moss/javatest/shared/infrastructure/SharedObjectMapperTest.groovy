@@ -0,0 +1,37 @@
+package com.moss.javatest.shared.infrastructure
+
+import com.fasterxml.jackson.core.type.TypeReference
+import com.moss.javatest.book.domain.code.BookType
+import com.moss.javatest.book.dto.book.BookDto
+import com.moss.javatest.shared.util.TimeUtils
+import spock.lang.Specification
+
+class SharedObjectMapperTest extends Specification {
+
+    def "CBOR, Smile도 JSON과 같은 설정으로 변환"() {
+        given:
+        var json = new SharedObjectMapper()
+        var books = (1..100).collect {
+            var book = new BookDto()
+            book.id = UUID.randomUUID().toString()
+            book.categoryId = it % 10
+            book.bookType = BookType.values()[it % BookType.values().length]
+            book.title = "title " + it
+            book.published = TimeUtils.parse("2021-05-11T00:00:00.123+09:00").plusDays(it)
+            book
+        }
+
+        when:
+        var bytes = objectMapper.writeValueAsBytes(books)
+        List<BookDto> read = objectMapper.readValue(bytes, new TypeReference<List<BookDto>>() {})
+
+        then:
+        books == read
+        // null 속성 제외, OffsetDateTime은 ISO 8601 문자열
+        json.writeValueAsString(books) == json.writeValueAsString(objectMapper.readTree(bytes))
+        bytes.length < json.writeValueAsBytes(books).length
+
+        where:
+        objectMapper << [SharedObjectMapper.cbor(), SharedObjectMapper.smile()]
+    }
+}
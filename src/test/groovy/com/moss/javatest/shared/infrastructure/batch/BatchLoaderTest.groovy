@@ -0,0 +1,70 @@
+package com.moss.javatest.shared.infrastructure.batch
+
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+
+class BatchLoaderTest extends Specification {
+    private List<Set<Integer>> calls = new CopyOnWriteArrayList<>()
+    private List<Integer> batchSizes = new CopyOnWriteArrayList<>()
+
+    private BatchLoader<Integer, Boolean> loader(Duration window, int maxBatchSize) {
+        return new BatchLoader<Integer, Boolean>("test-batch-loader", { keys ->
+            calls.add(new HashSet<>(keys))
+            keys.findAll { it > 0 }.collectEntries { [(it): true] }
+        }, false, window, maxBatchSize, { batchSizes.add(it) })
+    }
+
+    def "window 안의 요청은 한번에 조회하고 같은 Key는 합침"() {
+        given:
+        var loader = loader(Duration.ofMillis(50), 100)
+
+        when:
+        var futures = [1, 2, 1, -1].collect { loader.load(it) }
+        var results = futures.collect { it.get() }
+
+        then:
+        [true, true, true, false] == results
+        1 == calls.size()
+        [1, 2, -1] as Set == calls[0]
+        [3] == batchSizes
+
+        cleanup:
+        loader.close()
+    }
+
+    def "maxBatchSize에 도달하면 window를 기다리지 않고 조회"() {
+        given:
+        var loader = loader(Duration.ofHours(1), 2)
+
+        when:
+        var first = loader.load(1)
+        var second = loader.load(2)
+
+        then:
+        first.isDone()
+        second.isDone()
+        [[1, 2] as Set] == calls
+
+        cleanup:
+        loader.close()
+    }
+
+    def "loader가 실패하면 묶음의 모든 요청이 실패"() {
+        given:
+        var loader = new BatchLoader<Integer, Boolean>("test-batch-loader",
+                { keys -> throw new IllegalStateException("fail") }, false, Duration.ofHours(1), 2, { })
+
+        when:
+        var first = loader.load(1)
+        var second = loader.load(2)
+
+        then:
+        first.isCompletedExceptionally()
+        second.isCompletedExceptionally()
+
+        cleanup:
+        loader.close()
+    }
+}
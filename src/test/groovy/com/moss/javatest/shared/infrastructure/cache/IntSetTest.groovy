@@ -0,0 +1,37 @@
+package com.moss.javatest.shared.infrastructure.cache
+
+import spock.lang.Specification
+
+class IntSetTest extends Specification {
+
+    def "중복, null은 무시하고 포함 여부 확인"() {
+        when:
+        var set = IntSet.of([5, 1, null, 3, 1])
+
+        then:
+        3 == set.size()
+        set.contains(1)
+        set.contains(3)
+        set.contains(5)
+        !set.contains(2)
+    }
+
+    def "with, without은 새 집합을 반환하고 원래 집합은 그대로"() {
+        given:
+        var set = IntSet.of([1, 3, 5])
+
+        when:
+        var added = set.with(4)
+        var removed = set.without(3)
+
+        then:
+        added.contains(4)
+        4 == added.size()
+        !removed.contains(3)
+        2 == removed.size()
+        !set.contains(4)
+        set.contains(3)
+        set.with(1).is(set)
+        set.without(2).is(set)
+    }
+}
@@ -0,0 +1,127 @@
+package com.moss.javatest.shared.infrastructure.cache
+
+import spock.lang.Specification
+
+import java.util.stream.IntStream
+
+class LruCacheTest extends Specification {
+
+    def "적중, 미적중 통계"() {
+        given:
+        var cache = new LruCache<String, String>(10, 1000, { it.length() })
+
+        when:
+        cache.get("a", { "A" })
+        cache.get("a", { "X" })
+
+        then:
+        cache.get("a", { "X" }) == "A"
+        cache.hitCount() == 2
+        cache.missCount() == 1
+    }
+
+    def "항목 수 초과시 가장 오래 사용하지 않은 항목 제거"() {
+        given:
+        var cache = new LruCache<String, String>(2, 1000, { it.length() })
+        cache.get("a", { "A" })
+        cache.get("b", { "B" })
+        cache.get("a", { "X" })
+
+        when:
+        cache.get("c", { "C" })
+
+        then:
+        cache.size() == 2
+        cache.evictionCount() == 1
+        cache.get("a", { "X" }) == "A"
+        cache.get("b", { "Y" }) == "Y"
+    }
+
+    def "크기 초과시 제거"() {
+        given:
+        var cache = new LruCache<String, String>(10, 5, { it.length() })
+
+        when:
+        cache.get("a", { "AAA" })
+        cache.get("b", { "BBB" })
+
+        then:
+        cache.size() == 1
+        cache.weight() == 3
+    }
+
+    def "조건 무효화"() {
+        given:
+        var cache = new LruCache<Integer, String>(10, 1000, { it.length() })
+        (1..4).each { i -> cache.get(i, { "v" + i }) }
+
+        when:
+        cache.invalidateIf({ it % 2 == 0 })
+
+        then:
+        cache.size() == 2
+        cache.get(2, { "new" }) == "new"
+        cache.get(3, { "new" }) == "v3"
+    }
+
+    def "조회 중 무효화되면 결과를 캐시하지 않음"() {
+        given:
+        var cache = new LruCache<String, String>(10, 1000, { it.length() })
+
+        when:
+        var value = cache.get("a", {
+            cache.invalidateAll()
+            return "stale"
+        })
+
+        then:
+        value == "stale"
+        cache.size() == 0
+    }
+
+    def "조회 중 다른 Key만 무효화되면 결과를 캐시"() {
+        given:
+        var cache = new LruCache<String, String>(10, 1000, { it.length() })
+
+        when:
+        cache.get("a", {
+            cache.invalidateIf({ it == "b" })
+            return "A"
+        })
+
+        then:
+        cache.size() == 1
+        cache.get("a", { "X" }) == "A"
+    }
+
+    def "제거된 항목이 쌓여도 Queue 기준으로 제한 유지"() {
+        given:
+        var cache = new LruCache<Integer, String>(3, 1000, { it.length() })
+
+        when:
+        (1..100).each { i ->
+            cache.get(i, { "v" + i })
+            if (i % 10 == 0) {
+                cache.invalidateIf({ it % 2 == 0 })
+            }
+        }
+
+        then:
+        cache.size() <= 3
+        cache.get(100, { "new" }) == "new"
+        cache.get(99, { "new" }) == "v99"
+    }
+
+    def "여러 스레드에서 조회해도 같은 값, 항목 수 제한 유지"() {
+        given:
+        var cache = new LruCache<Integer, String>(50, 100000, { it.length() })
+
+        when:
+        IntStream.range(0, 100000).parallel().forEach { i -> cache.get(i % 100, { "v" + (i % 100) }) }
+
+        then:
+        cache.size() <= 50
+        (0..99).every { cache.get(it, { "v" + it }) == "v" + it }
+        cache.hitCount() + cache.missCount() == 100100
+    }
+}
@@ -0,0 +1,44 @@
+package com.moss.javatest.shared.infrastructure.jpa
+
+import org.hibernate.resource.jdbc.spi.StatementInspector
+
+/**
+ * 실행한 SQL 문 수 측정 (현재 Thread에서 준비한 문만)
+ * Hibernate가 문을 준비할 때 호출하는 StatementInspector로 세므로 주기 작업 등 다른 Thread의 SQL은 제외
+ * JDBC batch는 묶음당 1개로 센다.
+ * 사용하려면 spring.jpa.properties.hibernate.session_factory.statement_inspector에 이 Class를 지정
+ */
+class StatementCounter implements StatementInspector {
+    // 측정 중인 Thread의 SQL 문 수
+    private static final ThreadLocal<long[]> Counts = new ThreadLocal<>()
+
+    @Override
+    String inspect(String sql) {
+        var counts = Counts.get()
+        if (null != counts) {
+            counts[0]++
+        }
+        return sql
+    }
+
+    /**
+     * action 실행 중 현재 Thread에서 준비된 SQL 문 수
+     * @param action 측정할 작업
+     * @return SQL 문 수
+     */
+    long count(Closure action) {
+        var previous = Counts.get()
+        var counts = new long[1]
+        Counts.set(counts)
+        try {
+            action.call()
+        } finally {
+            if (null == previous) {
+                Counts.remove()
+            } else {
+                Counts.set(previous)
+            }
+        }
+        return counts[0]
+    }
+}
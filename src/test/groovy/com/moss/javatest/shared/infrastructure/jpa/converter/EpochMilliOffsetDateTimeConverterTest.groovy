@@ -0,0 +1,67 @@
+package com.moss.javatest.shared.infrastructure.jpa.converter
+
+import com.moss.javatest.shared.util.TimeUtils
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+import java.time.OffsetDateTime
+import java.time.ZoneId
+
+class EpochMilliOffsetDateTimeConverterTest extends Specification {
+    var converter = new EpochMilliOffsetDateTimeConverter()
+
+    def "DST 경계 전후 시간도 같은 Instant로 저장, 조회"() {
+        given:
+        var zone = ZoneId.of(zoneId)
+        var start = Instant.parse(boundary).minus(Duration.ofHours(2))
+
+        expect:
+        for (int minute = 0; minute <= 240; minute++) {
+            var value = OffsetDateTime.ofInstant(start.plus(Duration.ofMinutes(minute)).plusMillis(123), zone)
+            var stored = converter.convertToDatabaseColumn(value)
+            var loaded = converter.convertToEntityAttribute(stored)
+
+            assert value.toInstant().toEpochMilli() == stored
+            assert value.toInstant() == loaded.toInstant()
+            assert TimeUtils.zoneOffset() == loaded.getOffset()
+        }
+
+        where:
+        zoneId             | boundary
+        "America/New_York" | "2021-03-14T07:00:00Z"
+        "America/New_York" | "2021-11-07T06:00:00Z"
+        "Europe/Berlin"    | "2021-03-28T01:00:00Z"
+        "Europe/Berlin"    | "2021-10-31T01:00:00Z"
+    }
+
+    def "DST 겹치는 시간(같은 LocalDateTime, 다른 offset)은 다른 값으로 저장"() {
+        given:
+        var first = OffsetDateTime.parse("2021-11-07T01:30:00-04:00")
+        var second = OffsetDateTime.parse("2021-11-07T01:30:00-05:00")
+
+        expect:
+        first.toLocalDateTime() == second.toLocalDateTime()
+        3600000L == converter.convertToDatabaseColumn(second) - converter.convertToDatabaseColumn(first)
+    }
+
+    def "저장 값 순서는 Instant 순서와 같음 (범위 조건을 정수 비교로 처리)"() {
+        given:
+        var values = [
+                OffsetDateTime.parse("1969-12-31T23:59:59.999Z"),
+                OffsetDateTime.parse("1970-01-01T09:00:00.000+09:00"),
+                OffsetDateTime.parse("1970-01-01T00:00:00.001Z"),
+                OffsetDateTime.parse("2021-05-11T00:00:00.000+09:00"),
+                OffsetDateTime.parse("2021-05-10T16:00:00.000-08:00"),
+        ]
+
+        expect:
+        [-1L, 0L, 1L, 1620658800000L, 1620691200000L] == values.collect { converter.convertToDatabaseColumn(it) }
+    }
+
+    def "null 처리"() {
+        expect:
+        null == converter.convertToDatabaseColumn(null)
+        null == converter.convertToEntityAttribute(null)
+    }
+}
@@ -0,0 +1,51 @@
+package com.moss.javatest.shared.infrastructure.querydsl
+
+import com.moss.javatest.shared.dto.SimpleDto
+import com.querydsl.core.types.ExpressionUtils
+import com.querydsl.core.types.dsl.PathBuilder
+import spock.lang.Specification
+
+class DtoProjectionTest extends Specification {
+    def root = new PathBuilder<Object>(Object, "model")
+
+    def "Path 이름, Embedded Path, alias로 Dto 속성 연결"() {
+        given:
+        var projection = DtoProjection.of(SimpleDto,
+                root.getNumber("a", Integer),
+                root.get("b").getString("id"),
+                ExpressionUtils.as(root.getNumber("seconds", Long), "epochSecond"))
+
+        when:
+        SimpleDto dto = projection.newInstance(1, "b", 2L)
+
+        then:
+        1 == dto.getA()
+        "b" == dto.getB()
+        2L == dto.getEpochSecond()
+    }
+
+    def "null 값은 설정하지 않음"() {
+        given:
+        var projection = DtoProjection.of(SimpleDto, root.getNumber("a", Integer), root.getString("b"))
+
+        when:
+        SimpleDto dto = projection.newInstance(null, null)
+
+        then:
+        0 == dto.getA()
+        null == dto.getB()
+    }
+
+    def "같은 Dto, Expression 목록이면 같은 Projection"() {
+        expect:
+        DtoProjection.of(SimpleDto, root.getString("b")).is(DtoProjection.of(SimpleDto, root.getString("b")))
+    }
+
+    def "Dto에 없는 속성은 IllegalArgumentException"() {
+        when:
+        DtoProjection.of(SimpleDto, root.getString("unknown"))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,31 @@
+package com.moss.javatest.shared.infrastructure.querydsl
+
+import spock.lang.Specification
+
+class InParametersTest extends Specification {
+
+    def "파라미터 수를 2의 거듭제곱으로 맞춤"() {
+        expect:
+        expected == InParameters.pad(values)
+
+        where:
+        values          | expected
+        [1]             | [1]
+        [1, 2]          | [1, 2]
+        [1, 2, 3]       | [1, 2, 3, 3]
+        [1, 2, 3, 4, 5] | [1, 2, 3, 4, 5, 5, 5, 5]
+    }
+
+    def "중복, null을 제거하고 최대 크기로 나눔"() {
+        when:
+        var chunks = InParameters.chunks([1, 2, 2, null, 3, 4, 5, 1], 4)
+
+        then:
+        [[1, 2, 3, 4], [5]] == chunks
+    }
+
+    def "빈 목록은 묶음 없음"() {
+        expect:
+        InParameters.chunks([], 4).isEmpty()
+    }
+}
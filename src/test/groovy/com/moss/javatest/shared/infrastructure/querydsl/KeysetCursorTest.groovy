@@ -0,0 +1,34 @@
+package com.moss.javatest.shared.infrastructure.querydsl
+
+import spock.lang.Specification
+
+class KeysetCursorTest extends Specification {
+
+    def "encode 후 decode 하면 원래 값"() {
+        when:
+        var cursor = KeysetCursor.encode(title, id)
+        var values = KeysetCursor.decode(cursor, 2)
+
+        then:
+        !cursor.contains("=")
+        title == values[0]
+        id == values[1]
+
+        where:
+        title          | id
+        "자바의 정석"     | "0b7c1e0e-2b0c-4f7e-9d0a-2b3f5a6c7d8e"
+        "a.b/c+d"      | "1"
+        ""             | "2"
+    }
+
+    def "잘못된 커서는 IllegalArgumentException"() {
+        when:
+        KeysetCursor.decode(cursor, 2)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        cursor << ["abc", "a.b.c", "!!.??"]
+    }
+}
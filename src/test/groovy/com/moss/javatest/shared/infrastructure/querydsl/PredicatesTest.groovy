@@ -0,0 +1,60 @@
+package com.moss.javatest.shared.infrastructure.querydsl
+
+import com.querydsl.core.types.Constant
+import com.querydsl.core.types.Expression
+import com.querydsl.core.types.Operation
+import com.querydsl.core.types.Ops
+import com.querydsl.core.types.dsl.PathBuilder
+import spock.lang.Specification
+
+class PredicatesTest extends Specification {
+    def root = new PathBuilder<Object>(Object, "model")
+
+    private static int depth(Expression<?> expression) {
+        if (!(expression instanceof Operation)) {
+            return 0
+        }
+        return 1 + ((Operation<?>) expression).args.collect { depth(it) }.max()
+    }
+
+    def "같은 Path의 (path = 값) Or 목록은 2의 거듭제곱 크기 IN 하나로 변환"() {
+        when:
+        var expression = Predicates.start()
+                .loop((1..1000).toList(), Predicates.JoinOps.Or, { predicates, value ->
+                    predicates.required(root.getNumber("id", Integer).eq(value as Integer))
+                })
+                .end()
+
+        then:
+        Ops.IN == ((Operation<?>) expression).operator
+        1024 == ((Constant<Collection>) ((Operation<?>) expression).getArg(1)).constant.size()
+    }
+
+    def "값이 하나인 Path는 그대로 (path = 값)"() {
+        when:
+        var expression = Predicates.start()
+                .loop([1, 1], Predicates.JoinOps.Or, { predicates, value ->
+                    predicates.required(root.getNumber("id", Integer).eq(value as Integer))
+                })
+                .end()
+
+        then:
+        Ops.EQ == ((Operation<?>) expression).operator
+    }
+
+    def "Join은 균형 잡힌 트리로 작성"() {
+        when:
+        var expression = Predicates.start()
+                .loop((1..1024).toList(), joinOps, { predicates, value ->
+                    predicates.required(root.getString("name").like("%" + value + "%"))
+                })
+                .end()
+
+        then:
+        // 1024개 Join(10단계) + like(1단계)
+        11 == depth(expression)
+
+        where:
+        joinOps << [Predicates.JoinOps.And, Predicates.JoinOps.Or]
+    }
+}
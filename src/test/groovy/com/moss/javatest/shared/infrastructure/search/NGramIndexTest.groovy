@@ -0,0 +1,99 @@
+package com.moss.javatest.shared.infrastructure.search
+
+import com.moss.javatest.shared.util.ElapsedTime
+import spock.lang.Specification
+
+class NGramIndexTest extends Specification {
+
+    def "부분 문자열 검색"() {
+        given:
+        var index = new NGramIndex<String, String>()
+        index.put("1", "doc1", "Effective Java", "Joshua Bloch")
+        index.put("2", "doc2", "자바의 정석", "남궁성")
+        index.put("3", "doc3", "Java Concurrency in Practice", "Brian Goetz")
+
+        expect:
+        (index.search(keyword, null) as Set) == (result as Set)
+
+        where:
+        keyword   | result
+        "java"    | ["doc1", "doc3"]
+        "JAVA"    | ["doc1", "doc3"]
+        "바의"      | ["doc2"]
+        "bloch"   | ["doc1"]
+        "a"       | ["doc1", "doc3"]
+        "javab"   | []
+        "xyz"     | []
+    }
+
+    def "필드 경계를 넘는 문자열은 검색되지 않음"() {
+        given:
+        var index = new NGramIndex<String, String>()
+        index.put("1", "doc1", "ab", "cd")
+
+        expect:
+        index.search("bc", null).isEmpty()
+    }
+
+    def "수정, 삭제 반영"() {
+        given:
+        var index = new NGramIndex<String, String>()
+        index.put("1", "doc1", "spring boot")
+        index.put("2", "doc2", "spring data")
+
+        when:
+        index.put("1", "doc1'", "querydsl")
+        index.remove("2")
+
+        then:
+        index.search("spring", null).isEmpty()
+        index.search("query", null) == ["doc1'"]
+        index.get("2") == null
+        index.size() == 1
+    }
+
+    def "필터 적용"() {
+        given:
+        var index = new NGramIndex<String, Integer>()
+        (1..100).each { index.put(String.valueOf(it), it, "book " + it) }
+
+        expect:
+        index.search("book", { it % 10 == 0 }).size() == 10
+    }
+
+    def "limit개를 찾으면 검색 중단"() {
+        given:
+        var index = new NGramIndex<String, Integer>()
+        (1..100).each { index.put(String.valueOf(it), it, "book " + it) }
+        var tested = 0
+
+        when:
+        var result = index.search(keyword, { tested++; true }, 11)
+
+        then:
+        11 == result.size()
+        11 == tested
+
+        where:
+        keyword << ["book", "b"]
+    }
+
+    def "색인 검색은 전체 문자열 비교(LIKE '%keyword%')보다 짧음"() {
+        given:
+        var index = new NGramIndex<Integer, Integer>()
+        var texts = new ArrayList<String>()
+        for (int i = 0; i < 20_000; i++) {
+            var title = 10_000 == i ? "Querydsl in Action" : "Spring Data " + i
+            index.put(i, i, title, "author " + (i % 50))
+            texts.add((title + "\n" + "author " + (i % 50)).toLowerCase(Locale.ROOT))
+        }
+
+        when:
+        var indexed = ElapsedTime.nanos(200, { index.search("querydsl", null) })
+        var scanned = ElapsedTime.nanos(200, { texts.stream().filter({ it.contains("querydsl") }).count() })
+
+        then:
+        [10_000] == index.search("querydsl", null)
+        indexed < scanned
+    }
+}
@@ -0,0 +1,34 @@
+package com.moss.javatest.shared.util
+
+import groovy.transform.CompileStatic
+
+/**
+ * 두 구현의 실행 시간 비교용 측정 (JMH 대신 테스트에서 대략적인 차이만 확인)
+ * 같은 횟수로 한번 실행(JIT warm-up) 후 Rounds번 측정하여 가장 짧은 시간을 사용 (GC, 다른 Thread 영향 최소화)
+ * 시간 차이가 큰 경로만 비교하고, 정확한 수치가 필요하면 JMH 사용
+ */
+@CompileStatic
+class ElapsedTime {
+    static final int Rounds = 5
+
+    /**
+     * action을 iterations번 실행하는 시간
+     * @param iterations 한 Round의 실행 횟수
+     * @param action 측정할 작업
+     * @return 가장 짧은 Round의 nano 초
+     */
+    static long nanos(int iterations, Closure<?> action) {
+        for (int i = 0; i < iterations; i++) {
+            action.call()
+        }
+        long best = Long.MAX_VALUE
+        for (int round = 0; round < Rounds; round++) {
+            long start = System.nanoTime()
+            for (int i = 0; i < iterations; i++) {
+                action.call()
+            }
+            best = Math.min(best, System.nanoTime() - start)
+        }
+        return best
+    }
+}
@@ -0,0 +1,183 @@
+package com.moss.javatest.shared.util
+
+import com.moss.javatest.shared.infrastructure.SharedObjectMapper
+import spock.lang.Specification
+
+import java.time.Clock
+import java.time.Duration
+import java.time.OffsetDateTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.time.format.DateTimeParseException
+
+class TimeUtilsTest extends Specification {
+
+    def cleanup() {
+        TimeUtils.useSystemClock()
+    }
+
+    def "고정 포맷 출력은 ISO8601_PRINT_FORMATTER와 같은 결과"() {
+        given:
+        var random = new Random(1)
+
+        expect:
+        for (int i = 0; i < 10000; i++) {
+            // 0001 ~ 9998 년
+            var epochSecond = -62104060800L + (long) (random.nextDouble()*(253370764800L + 62104060800L))
+            var value = TimeUtils.from(epochSecond*1000 + random.nextInt(1000))
+            assert value.withOffsetSameInstant(TimeUtils.zoneOffset()).format(TimeUtils.ISO8601_PRINT_FORMATTER) == TimeUtils.print(value)
+        }
+    }
+
+    def "고정 포맷 파싱은 OffsetDateTime.parse와 같은 결과"() {
+        expect:
+        OffsetDateTime.parse(text).withOffsetSameInstant(TimeUtils.zoneOffset()) == TimeUtils.parse(text)
+        OffsetDateTime.parse(text).withOffsetSameInstant(TimeUtils.zoneOffset()) == TimeUtils.parse(text.toCharArray(), 0, text.length())
+
+        where:
+        text << [
+                "2021-05-11T00:00:00.000+09:00",
+                "2021-05-11T00:00:00+09:00",
+                "2021-05-11T23:59:59.999Z",
+                "2020-02-29T12:34:56.1-03:30",
+                "1969-12-31T23:59:59.123456789+18:00",
+                "0001-01-01T00:00:00Z",
+                "9999-12-31T23:59:59.999-18:00",
+        ]
+    }
+
+    def "고정 포맷 파싱, 출력은 DateTimeFormatter보다 짧음"() {
+        given:
+        var text = "2021-05-11T10:20:30.456+09:00"
+        var value = TimeUtils.parse(text)
+
+        when:
+        var fixedParse = ElapsedTime.nanos(50_000, { TimeUtils.parse(text) })
+        var formatterParse = ElapsedTime.nanos(50_000, { OffsetDateTime.parse(text).withOffsetSameInstant(TimeUtils.zoneOffset()) })
+        var fixedPrint = ElapsedTime.nanos(50_000, { TimeUtils.print(value) })
+        var formatterPrint = ElapsedTime.nanos(50_000, { value.withOffsetSameInstant(TimeUtils.zoneOffset()).format(TimeUtils.ISO8601_PRINT_FORMATTER) })
+
+        then:
+        fixedParse < formatterParse
+        fixedPrint < formatterPrint
+    }
+
+    def "고정 포맷이 아닌 입력은 formatter로 처리"() {
+        expect:
+        OffsetDateTime.parse(text).withOffsetSameInstant(TimeUtils.zoneOffset()) == TimeUtils.parse(text)
+
+        where:
+        text << [
+                "2021-05-11T00:00+09:00",
+                "2021-05-11t00:00:00.000z",
+                "2021-05-11T00:00:00+09:00:30",
+        ]
+    }
+
+    def "잘못된 입력은 DateTimeParseException"() {
+        when:
+        TimeUtils.parse(text)
+
+        then:
+        thrown(DateTimeParseException)
+
+        where:
+        text << ["2021-02-30T00:00:00Z", "2021-05-11T24:00:00Z", "2021-05-11T00:00:00.Z", "2021-05-11"]
+    }
+
+    def "char 버퍼 중간 위치에서 파싱, 출력"() {
+        given:
+        var chars = "[\"2021-05-11T00:00:00.000+09:00\"]".toCharArray()
+        var buffer = new char[TimeUtils.ISO8601_PRINT_LENGTH + 2]
+
+        when:
+        var value = TimeUtils.parse(chars, 2, 29)
+        var length = TimeUtils.print(value, buffer, 1)
+
+        then:
+        value.toInstant() == OffsetDateTime.parse("2021-05-11T00:00:00.000+09:00").toInstant()
+        TimeUtils.print(value) == new String(buffer, 1, length)
+    }
+
+    def "Jackson 직렬화, 역직렬화"() {
+        given:
+        var objectMapper = new SharedObjectMapper()
+        var value = TimeUtils.parse("2021-05-11T00:00:00.123+09:00")
+
+        when:
+        var json = objectMapper.writeValueAsString([published: value])
+        var read = objectMapper.readValue(json, Holder)
+
+        then:
+        json == "{\"published\":\"" + TimeUtils.print(value) + "\"}"
+        read.published == value
+    }
+
+    def "고정 Clock 기준으로 현재 시간, 시작, 끝 계산"() {
+        given:
+        TimeUtils.useFixedClock(TimeUtils.parse("2021-02-10T10:20:30.400Z"))
+        var now = TimeUtils.now()
+
+        expect:
+        now.toInstant() == OffsetDateTime.parse("2021-02-10T10:20:30.400Z").toInstant()
+        ZoneId.systemDefault().getRules().getOffset(now.toInstant()) == now.getOffset()
+        TimeUtils.toEpochMilli(now) == TimeUtils.nowEpochMilli()
+        now.withNano(0) == TimeUtils.nowNoNano()
+        TimeUtils.startOfDay(now) == TimeUtils.startOfDay()
+        TimeUtils.endOfDay(now) == TimeUtils.endOfDay()
+        TimeUtils.startOfMonth(now) == TimeUtils.startOfMonth()
+        TimeUtils.endOfMonth(now) == TimeUtils.endOfMonth()
+    }
+
+    def "현재 시간의 offset은 조회 시점의 Zone 규칙으로 계산 (DST)"() {
+        given:
+        var zone = ZoneId.of("America/New_York")
+
+        when:
+        TimeUtils.useClock(Clock.fixed(OffsetDateTime.parse("2021-01-10T12:00:00Z").toInstant(), zone))
+        var winter = TimeUtils.now()
+        TimeUtils.useClock(Clock.fixed(OffsetDateTime.parse("2021-07-10T12:00:00Z").toInstant(), zone))
+        var summer = TimeUtils.now()
+
+        then:
+        ZoneOffset.ofHours(-5) == winter.getOffset()
+        ZoneOffset.ofHours(-4) == summer.getOffset()
+    }
+
+    def "시스템 Clock은 고정 offset이 아닌 시스템 기본 Zone 사용"() {
+        expect:
+        ZoneId.systemDefault() == TimeUtils.systemClock().getZone()
+        ZoneId.systemDefault().getRules().getOffset(TimeUtils.now().toInstant()) == TimeUtils.now().getOffset()
+    }
+
+    def "CoarseClock은 tick 마다 갱신"() {
+        given:
+        var clock = new CoarseClock("test-coarse-clock", ZoneId.systemDefault(), Duration.ofMillis(1))
+        TimeUtils.useClock(clock)
+
+        when:
+        var first = TimeUtils.now()
+        Thread.sleep(50)
+        var second = TimeUtils.now()
+
+        then:
+        first.isBefore(second)
+        Math.abs(System.currentTimeMillis() - TimeUtils.nowEpochMilli()) < 1000
+        ZoneId.systemDefault().getRules().getOffset(second.toInstant()) == second.getOffset()
+
+        cleanup:
+        clock.close()
+    }
+
+    def "CoarseClock tick은 양수"() {
+        when:
+        new CoarseClock("test-coarse-clock", ZoneId.systemDefault(), Duration.ZERO)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    static class Holder {
+        public OffsetDateTime published
+    }
+}
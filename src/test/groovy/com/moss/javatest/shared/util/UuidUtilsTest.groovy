@@ -0,0 +1,56 @@
+package com.moss.javatest.shared.util
+
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.stream.IntStream
+
+class UuidUtilsTest extends Specification {
+
+    def "시간순 UUID는 version 7, variant 2"() {
+        when:
+        var uuid = UuidUtils.timeOrdered()
+
+        then:
+        7 == uuid.version()
+        2 == uuid.variant()
+    }
+
+    def "같은 ms에 연속 생성해도 문자열, byte 순서 모두 증가"() {
+        when:
+        var uuids = (1..10000).collect { UuidUtils.timeOrdered() }
+
+        then:
+        for (int i = 1; i < uuids.size(); i++) {
+            assert uuids[i - 1].toString() < uuids[i].toString()
+            assert Arrays.compareUnsigned(UuidUtils.toBytes(uuids[i - 1]), UuidUtils.toBytes(uuids[i])) < 0
+        }
+    }
+
+    def "여러 스레드에서 생성해도 중복 없음"() {
+        given:
+        var uuids = ConcurrentHashMap.newKeySet()
+
+        when:
+        IntStream.range(0, 100000).parallel().forEach { uuids.add(UuidUtils.timeOrdered()) }
+
+        then:
+        100000 == uuids.size()
+    }
+
+    def "byte 변환 후 되돌리면 원래 값"() {
+        given:
+        var uuid = UUID.randomUUID()
+
+        expect:
+        uuid == UuidUtils.fromBytes(UuidUtils.toBytes(uuid))
+    }
+
+    def "16 byte가 아니면 IllegalArgumentException"() {
+        when:
+        UuidUtils.fromBytes(new byte[15])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
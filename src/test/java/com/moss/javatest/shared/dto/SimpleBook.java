@@ -0,0 +1,10 @@
+package com.moss.javatest.shared.dto;
+
+import lombok.Data;
+
+@Data
+public class SimpleBook {
+    String id;
+    SimpleCategory category;
+    String title;
+}
@@ -0,0 +1,9 @@
+package com.moss.javatest.shared.dto;
+
+import lombok.Data;
+
+@Data
+public class SimpleCategory {
+    Integer id;
+    String name;
+}
@@ -0,0 +1,15 @@
+package com.moss.javatest.shared.dto;
+
+import com.moss.javatest.shared.domain.SingleValueObject;
+import lombok.Value;
+
+@Value(staticConstructor = "of")
+public class SimpleCode implements SingleValueObject<String> {
+    String code;
+    String label;
+
+    @Override
+    public String value() {
+        return code;
+    }
+}
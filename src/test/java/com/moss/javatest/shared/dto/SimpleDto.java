@@ -9,4 +9,5 @@ public class SimpleDto {
     int a;
     String b;
     long epochSecond;
+    String code;
 }
@@ -10,4 +10,5 @@ public class SimpleModel {
     int a;
     String b;
     OffsetDateTime time;
+    SimpleCode code;
 }